@@ -0,0 +1,108 @@
+package com.kyk.mealtracker.bot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gelen mesajlar için sohbet başı token bucket. Her sohbet en fazla {@code burst} mesajı art arda
+ * gönderebilir, sonra saniyede {@code refillPerSecond} hızında yeni hak kazanır.
+ *
+ * Durum erişim sırasına göre tutulan sınırlı bir LRU haritasındadır: kovası tamamen dolmuş
+ * (yani hiç kısıtlamayan) kayıtlar süresi dolmuş sayılır ve atılır, harita hiçbir zaman
+ * {@code maxChats} kaydı aşmaz. Bu sınır aşıldığında en uzun süredir yazmayan sohbetin kovası sıfırlanır.
+ */
+@Component
+public class ChatRateLimiter {
+
+    private final double burst;
+    private final double tokensPerNano;
+    private final long idleExpiryNanos;
+    private final LinkedHashMap<Long, ChatBucket> buckets;
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ChatRateLimiter(@Value("${telegram.inbound.rate-limit.burst:3}") int burst,
+                           @Value("${telegram.inbound.rate-limit.refill-per-second:0.34}") double refillPerSecond,
+                           @Value("${telegram.inbound.rate-limit.max-chats:100000}") int maxChats) {
+        this.burst = Math.max(1, burst);
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        // Bu kadar süre yazmayan sohbetin kovası zaten dolmuştur
+        this.idleExpiryNanos = (long) Math.ceil(this.burst / tokensPerNano);
+        this.buckets = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ChatBucket> eldest) {
+                return size() > maxChats || isExpired(eldest.getValue(), System.nanoTime());
+            }
+        };
+    }
+
+    /**
+     * @return mesaj işlenebilirse true; sohbet limiti aştıysa false (mesaj atılır)
+     */
+    public boolean tryAcquire(Long chatId) {
+        long now = System.nanoTime();
+        boolean acquired;
+        synchronized (buckets) {
+            ChatBucket bucket = buckets.get(chatId);
+            if (bucket == null) {
+                bucket = new ChatBucket(burst, now);
+                buckets.put(chatId, bucket);
+            }
+            bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.lastRefill) * tokensPerNano);
+            bucket.lastRefill = now;
+            acquired = bucket.tokens >= 1;
+            if (acquired) {
+                bucket.tokens -= 1;
+            }
+        }
+        (acquired ? allowed : dropped).incrementAndGet();
+        return acquired;
+    }
+
+    // Erişim sıralı haritada en eski kayıtlar baştadır; süresi dolmamış ilk kayıtta durulur
+    @Scheduled(fixedDelay = 60, timeUnit = TimeUnit.SECONDS)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        synchronized (buckets) {
+            Iterator<ChatBucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext() && isExpired(iterator.next(), now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public long getAllowedCount() {
+        return allowed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getTrackedChats() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    private boolean isExpired(ChatBucket bucket, long now) {
+        return now - bucket.lastRefill >= idleExpiryNanos;
+    }
+
+    private static final class ChatBucket {
+        private double tokens;
+        private long lastRefill;
+
+        private ChatBucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+}
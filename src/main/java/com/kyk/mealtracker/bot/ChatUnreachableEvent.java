@@ -0,0 +1,7 @@
+package com.kyk.mealtracker.bot;
+
+/**
+ * Telegram kalıcı bir hata döndürdüğünde (bot engellendi, sohbet bulunamadı, hesap silindi) yayınlanır.
+ */
+public record ChatUnreachableEvent(Long chatId, String reason) {
+}
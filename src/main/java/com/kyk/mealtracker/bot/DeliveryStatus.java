@@ -0,0 +1,9 @@
+package com.kyk.mealtracker.bot;
+
+public enum DeliveryStatus {
+    SENT,
+    FAILED,
+    // Kalıcı hata: kullanıcı botu engellemiş ya da sohbet artık yok
+    BLOCKED,
+    SKIPPED
+}
@@ -1,20 +1,25 @@
 package com.kyk.mealtracker.bot;
 
 import com.kyk.mealtracker.entity.BotUser;
-import com.kyk.mealtracker.entity.Meal;
 import com.kyk.mealtracker.repository.BotUserRepository;
+import com.kyk.mealtracker.services.AdminJob;
+import com.kyk.mealtracker.services.AdminJobService;
 import com.kyk.mealtracker.services.AdminService;
+import com.kyk.mealtracker.services.BotStatsService;
+import com.kyk.mealtracker.services.MealMessageFormatter;
 import com.kyk.mealtracker.services.MealService;
-import com.kyk.mealtracker.services.MealSyncService;
+import com.kyk.mealtracker.services.MealSyncEngine;
+import com.kyk.mealtracker.services.MenuSnapshotStore;
+import com.kyk.mealtracker.services.OutboxService;
+import com.kyk.mealtracker.services.UserActivityTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
 import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
-import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.User;
@@ -26,23 +31,25 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import java.util.ArrayList;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Locale;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class KykMealBot extends TelegramLongPollingBot {
 
     private static final Logger logger = LoggerFactory.getLogger(KykMealBot.class);
+    private static final String USER_LIST_CALLBACK = "admin_list:";
     private final MealService mealService;
     private final BotUserRepository botUserRepository;
     private final AdminService adminService;
-    private final MealSyncService mealSyncService;
-
-    // Anti-spam (ChatID -> Timestamp)
-    private final ConcurrentHashMap<Long, Long> lastMessageTimes = new ConcurrentHashMap<>();
+    private final MealSyncEngine mealSyncEngine;
+    private final OutboundDispatcher outboundDispatcher;
+    private final AdminJobService adminJobService;
+    private final UserActivityTracker userActivityTracker;
+    private final MenuSnapshotStore menuSnapshotStore;
+    private final BotStatsService botStatsService;
+    private final ChatRateLimiter chatRateLimiter;
+    private final UpdateDispatcher updateDispatcher;
+    private final OutboxService outboxService;
 
     @Value("${telegram.bot.username}")
     private String botUsername;
@@ -50,11 +57,22 @@ public class KykMealBot extends TelegramLongPollingBot {
     @Value("${telegram.bot.token}")
     private String botToken;
 
-    public KykMealBot(MealService mealService, BotUserRepository botUserRepository, AdminService adminService, MealSyncService mealSyncService) {
+    public KykMealBot(MealService mealService, BotUserRepository botUserRepository, AdminService adminService, MealSyncEngine mealSyncEngine, OutboundDispatcher outboundDispatcher,
+                      AdminJobService adminJobService, UserActivityTracker userActivityTracker,
+                      MenuSnapshotStore menuSnapshotStore, BotStatsService botStatsService,
+                      ChatRateLimiter chatRateLimiter, UpdateDispatcher updateDispatcher, OutboxService outboxService) {
         this.mealService = mealService;
         this.botUserRepository = botUserRepository;
         this.adminService = adminService;
-        this.mealSyncService = mealSyncService;
+        this.mealSyncEngine = mealSyncEngine;
+        this.outboundDispatcher = outboundDispatcher;
+        this.adminJobService = adminJobService;
+        this.userActivityTracker = userActivityTracker;
+        this.menuSnapshotStore = menuSnapshotStore;
+        this.botStatsService = botStatsService;
+        this.chatRateLimiter = chatRateLimiter;
+        this.updateDispatcher = updateDispatcher;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -69,6 +87,16 @@ public class KykMealBot extends TelegramLongPollingBot {
 
     @Override
     public void onUpdateReceived(Update update) {
+        Long chatId = UpdateDispatcher.chatIdOf(update);
+        // Sohbet başı sınır long-polling thread'inde uygulanır; spam yapan sohbet paylaşılan işçi kuyruğunu dolduramaz
+        if (update.hasMessage() && !chatRateLimiter.tryAcquire(chatId)) {
+            return; // Ignore spam
+        }
+        // İşleme sohbet başı sıralı işçilerde yapılır
+        updateDispatcher.dispatch(chatId, () -> processUpdate(update));
+    }
+
+    private void processUpdate(Update update) {
         if (update.hasCallbackQuery()) {
             handleCallbackQuery(update.getCallbackQuery());
             return;
@@ -89,16 +117,8 @@ public class KykMealBot extends TelegramLongPollingBot {
         Long chatId = message.getChatId();
         User user = message.getFrom();
 
-        // Rate Limiting (3 saniyede 1 mesaj)
-        long currentTime = System.currentTimeMillis();
-        long lastTime = lastMessageTimes.getOrDefault(chatId, 0L);
-        if (currentTime - lastTime < 3000) {
-            return; // Ignore spam
-        }
-        lastMessageTimes.put(chatId, currentTime);
-
         try {
-            saveOrUpdateUser(chatId, user);
+            userActivityTracker.recordActivity(chatId, user);
 
             if (messageText.startsWith("/admin_")) {
                 if (!adminService.isAdmin(chatId)) {
@@ -129,25 +149,58 @@ public class KykMealBot extends TelegramLongPollingBot {
                 String dateStr = data.substring(10);
                 LocalDate date = LocalDate.parse(dateStr);
                 
-                BotUser user = botUserRepository.findById(chatId).orElseThrow();
-                int cityId = user.getCityId() != null ? user.getCityId() : 1;
-                
-                List<Meal> meals = mealService.getMealsByDate(date).stream()
-                        .filter(m -> m.getCityId() != null && m.getCityId() == cityId)
-                        .toList();
-                
-                sendMealMessage(chatId, date, meals);
-                
-                // Answer callback to remove loading state
-                AnswerCallbackQuery answer = new AnswerCallbackQuery();
-                answer.setCallbackQueryId(callbackQuery.getId());
-                execute(answer);
+                sendMessage(chatId, menuSnapshotStore.getMenuMessage(userActivityTracker.getCityId(chatId), date));
+            } else if (data.startsWith(USER_LIST_CALLBACK)) {
+                // Buton eski bir mesajda kalmış olabilir; yetki her tıklamada yeniden kontrol edilir
+                if (adminService.isAdmin(callbackQuery.getFrom().getId())) {
+                    editUserList(callbackQuery, data.substring(USER_LIST_CALLBACK.length()));
+                }
             }
+
+            // Answer callback to remove loading state
+            AnswerCallbackQuery answer = new AnswerCallbackQuery();
+            answer.setCallbackQueryId(callbackQuery.getId());
+            execute(answer);
         } catch (Exception e) {
             logger.error("Callback query error", e);
         }
     }
 
+    private void editUserList(CallbackQuery callbackQuery, String cursor) throws TelegramApiException {
+        String[] parts = cursor.split(":", 2);
+        if (parts.length < 2) return;
+        long chatIdCursor = Long.parseLong(parts[1]);
+        AdminService.UserListPage page = "prev".equals(parts[0])
+                ? adminService.getUserPageBefore(chatIdCursor)
+                : adminService.getUserPageAfter(chatIdCursor);
+
+        EditMessageText edit = new EditMessageText();
+        edit.setChatId(callbackQuery.getMessage().getChatId());
+        edit.setMessageId(callbackQuery.getMessage().getMessageId());
+        edit.setText(page.text());
+        edit.setReplyMarkup(userListButtons(page));
+        execute(edit);
+    }
+
+    private InlineKeyboardMarkup userListButtons(AdminService.UserListPage page) {
+        List<InlineKeyboardButton> row = new ArrayList<>();
+        if (page.hasPrevious()) {
+            InlineKeyboardButton previous = new InlineKeyboardButton();
+            previous.setText("⬅️ Önceki");
+            previous.setCallbackData(USER_LIST_CALLBACK + "prev:" + page.firstChatId());
+            row.add(previous);
+        }
+        if (page.hasNext()) {
+            InlineKeyboardButton next = new InlineKeyboardButton();
+            next.setText("Sonraki ➡️");
+            next.setCallbackData(USER_LIST_CALLBACK + "next:" + page.lastChatId());
+            row.add(next);
+        }
+        InlineKeyboardMarkup markup = new InlineKeyboardMarkup();
+        markup.setKeyboard(row.isEmpty() ? List.of() : List.of(row));
+        return markup;
+    }
+
     private void handleCommand(Message message, String messageText) throws TelegramApiException {
         String[] parts = messageText.split("\\s+", 2);
         String command = parts[0];
@@ -200,21 +253,25 @@ public class KykMealBot extends TelegramLongPollingBot {
 
         switch (cmd) {
             case "/admin_list":
-                int page = 0;
+                Long afterChatId = null;
                 if (parts.length > 1) {
-                    try { 
-                        page = Integer.parseInt(parts[1].trim()); 
-                    } catch (Exception ignored) {}
+                    try {
+                        afterChatId = Long.parseLong(parts[1].trim());
+                    } catch (NumberFormatException ignored) {}
                 }
-                sendMessage(chatId, adminService.getUserList(page));
+                AdminService.UserListPage page = adminService.getUserPageAfter(afterChatId);
+                SendMessage listMessage = new SendMessage();
+                listMessage.setChatId(chatId);
+                listMessage.setText(page.text());
+                listMessage.setReplyMarkup(userListButtons(page));
+                execute(listMessage);
                 break;
             case "/admin_broadcast":
                 if (parts.length < 2) {
                     sendMessage(chatId, "⚠️ Kullanım: /admin_broadcast [mesaj]");
                     return;
                 }
-                int userCount = broadcastMessage(parts[1]);
-                sendMessage(chatId, "✅ Mesaj başarıyla gönderildi!\n👥 Toplam " + userCount + " kullanıcıya ulaştırıldı.");
+                sendJobStarted(chatId, adminJobService.startBroadcast(chatId, parts[1]));
                 break;
             case "/admin_broadcast_image":
                 if (!message.hasPhoto()) {
@@ -223,11 +280,16 @@ public class KykMealBot extends TelegramLongPollingBot {
                 }
                 String fileId = message.getPhoto().get(message.getPhoto().size() - 1).getFileId();
                 String caption = parts.length > 1 ? parts[1] : "";
-                int countImg = broadcastImage(fileId, caption);
-                sendMessage(chatId, "✅ Resimli duyuru " + countImg + " kişiye gönderildi.");
+                sendJobStarted(chatId, adminJobService.startImageBroadcast(chatId, fileId, caption));
                 break;
             case "/admin_stats":
-                sendMessage(chatId, adminService.getBotStats());
+                sendMessage(chatId, adminService.getBotStats()
+                        + "\n📬 Gönderim Kuyruğu: " + outboundDispatcher.getQueueDepth()
+                        + "\n🛑 Spam Nedeniyle Atılan Mesaj: " + chatRateLimiter.getDroppedCount()
+                        + " (izlenen sohbet: " + chatRateLimiter.getTrackedChats() + ")"
+                        + "\n📥 Gelen Update Kuyruğu: " + updateDispatcher.getQueueDepth()
+                        + " (dolu olduğu için atılan: " + updateDispatcher.getRejectedCount() + ")"
+                        + "\n❓ Teslimi Belirsiz Bildirim: " + outboxService.getUncertainDeliveryCount());
                 break;
             case "/admin_add":
                 if (parts.length < 2) return;
@@ -238,9 +300,13 @@ public class KykMealBot extends TelegramLongPollingBot {
                 removeAdmin(chatId, parts[1]);
                 break;
             case "/admin_fetch":
-                sendMessage(chatId, "⏳ Yemekler apiden çekiliyor...");
-                mealSyncService.fetchMealsForAllActiveCities();
-                sendMessage(chatId, "✅ Yemekler başarıyla güncellendi.");
+                sendJobStarted(chatId, adminJobService.startFetch(chatId));
+                break;
+            case "/admin_revalidate":
+                sendJobStarted(chatId, adminJobService.startRevalidate(chatId));
+                break;
+            case "/admin_job":
+                sendJobStatus(chatId, parts.length > 1 ? parts[1].trim() : null);
                 break;
             case "/admin_delete_meal":
                 if (parts.length < 2) {
@@ -267,6 +333,44 @@ public class KykMealBot extends TelegramLongPollingBot {
         }
     }
 
+    private void sendJobStarted(Long chatId, AdminJob job) throws TelegramApiException {
+        sendMessage(chatId, "⏳ Görev #" + job.getId() + " arka planda başlatıldı.\nİlerleme için: /admin_job " + job.getId());
+    }
+
+    private void sendJobStatus(Long chatId, String jobIdStr) throws TelegramApiException {
+        if (jobIdStr == null) {
+            List<AdminJob> jobs = adminJobService.getRecentJobs();
+            if (jobs.isEmpty()) {
+                sendMessage(chatId, "Henüz çalıştırılmış bir görev yok.");
+                return;
+            }
+            StringBuilder builder = new StringBuilder();
+            jobs.forEach(job -> builder.append(job.describe()).append("\n\n"));
+            sendMessage(chatId, builder.toString());
+            return;
+        }
+        try {
+            long jobId = Long.parseLong(jobIdStr);
+            adminJobService.getJob(jobId).ifPresentOrElse(
+                    job -> {
+                        try {
+                            sendMessage(chatId, job.describe());
+                        } catch (TelegramApiException e) {
+                            logger.error("Error sending job status", e);
+                        }
+                    },
+                    () -> {
+                        try {
+                            sendMessage(chatId, "❌ Görev bulunamadı.");
+                        } catch (TelegramApiException e) {
+                            logger.error("Error sending job status", e);
+                        }
+                    });
+        } catch (NumberFormatException e) {
+            sendMessage(chatId, "⚠️ Kullanım: /admin_job [görevId]");
+        }
+    }
+
     private void sendUserDetails(Long adminChatId, String targetChatIdStr) throws TelegramApiException {
         try {
             Long targetChatId = Long.parseLong(targetChatIdStr);
@@ -302,12 +406,11 @@ public class KykMealBot extends TelegramLongPollingBot {
     }
 
     private void sendFeedback(Long chatId, User user, String text) throws TelegramApiException {
-        List<BotUser> admins = botUserRepository.findByIsAdminTrue();
         String msg = String.format("📩 YENİ GERİ BİLDİRİM\nKimden: %s (@%s, ID: %d)\n\nMesaj: %s",
                 user.getFirstName(), user.getUserName(), chatId, text);
-        for (BotUser admin : admins) {
+        for (Long adminChatId : adminService.getAdminChatIds()) {
             try {
-                sendMessage(admin.getChatId(), msg);
+                sendMessage(adminChatId, msg);
             } catch (Exception ignored) {}
         }
         sendMessage(chatId, "✅ Mesajınız yöneticilere iletildi. Geri bildiriminiz için teşekkürler!");
@@ -323,82 +426,35 @@ public class KykMealBot extends TelegramLongPollingBot {
             BotUser user = botUserRepository.findById(chatId).orElseThrow();
             user.setCityId(code);
             botUserRepository.save(user);
-            sendMessage(chatId, "✅ Şehriniz " + code + " plaka kodu olarak ayarlandı.\nGüncel menüleri çekmek biraz zaman alabilir, lütfen daha sonra /bugun komutunu deneyin.");
-            // Fetch immediately for this user's city
-            try {
-                mealSyncService.fetchMealsForAllActiveCities(); // This handles finding the active city id
-            } catch (Exception ignored) {}
-            
+            userActivityTracker.updateCity(chatId, code);
+            // Yalnızca bu şehir, verisi eksik ya da bayatsa arka planda yenilenir; kullanıcı beklemez
+            if (mealSyncEngine.refreshCityIfNeeded(code).isPresent()) {
+                sendMessage(chatId, "✅ Şehriniz " + code + " plaka kodu olarak ayarlandı.\nGüncel menüler çekiliyor, birkaç saniye sonra /bugun komutunu deneyin.");
+            } else {
+                sendMessage(chatId, "✅ Şehriniz " + code + " plaka kodu olarak ayarlandı.\nBugünün menüsü için /bugun komutunu kullanabilirsiniz.");
+            }
         } catch (NumberFormatException e) {
             sendMessage(chatId, "❌ Lütfen sadece sayısal bir plaka kodu girin (Örn: /sehir_sec 34).");
         }
     }
 
-    private int broadcastMessage(String message) {
-        List<BotUser> allUsers = botUserRepository.findAll();
-        int successCount = 0;
-        for (BotUser user : allUsers) {
-            try {
-                SendMessage sendMessage = new SendMessage();
-                sendMessage.setChatId(user.getChatId());
-                sendMessage.setText("📢 Duyuru\n\n" + message);
-                execute(sendMessage);
-                successCount++;
-                Thread.sleep(50);
-            } catch (Exception e) {
-                logger.error("Broadcast message failed for user: " + user.getChatId(), e);
-            }
-        }
-        return successCount;
-    }
-
-    private int broadcastImage(String fileId, String caption) {
-        List<BotUser> allUsers = botUserRepository.findAll();
-        int successCount = 0;
-        for (BotUser user : allUsers) {
-            try {
-                SendPhoto sendPhoto = new SendPhoto();
-                sendPhoto.setChatId(user.getChatId());
-                sendPhoto.setPhoto(new InputFile(fileId));
-                sendPhoto.setCaption("📢 Duyuru\n\n" + caption);
-                execute(sendPhoto);
-                successCount++;
-                Thread.sleep(50);
-            } catch (Exception e) {
-                logger.error("Broadcast image failed for user: " + user.getChatId(), e);
-            }
-        }
-        return successCount;
-    }
-
-    private void saveOrUpdateUser(Long chatId, User user) {
-        BotUser botUser = botUserRepository.findById(chatId).orElse(new BotUser());
-        botUser.setChatId(chatId);
-        botUser.setUsername(user.getUserName());
-        botUser.setFirstName(user.getFirstName());
-        botUser.setLastName(user.getLastName());
-        botUser.setLastInteractionDate(LocalDateTime.now());
-        botUser.setLastActivityDate(LocalDateTime.now());
-
-        if (!botUserRepository.existsById(chatId)) {
-            botUser.setNotificationsEnabled(true);
-            botUser.setIsAdmin(false);
-            botUser.setCityId(1);
-        }
-        botUserRepository.save(botUser);
-    }
-
     private void enableNotifications(Long chatId) throws TelegramApiException {
         BotUser user = botUserRepository.findById(chatId).orElseThrow();
-        user.setNotificationsEnabled(true);
-        botUserRepository.save(user);
+        if (!user.isNotificationsEnabled()) {
+            user.setNotificationsEnabled(true);
+            botUserRepository.save(user);
+            botStatsService.onNotificationsToggled(true);
+        }
         sendMessage(chatId, "🔔 Bildirimler aktif edildi!");
     }
 
     private void disableNotifications(Long chatId) throws TelegramApiException {
         BotUser user = botUserRepository.findById(chatId).orElseThrow();
-        user.setNotificationsEnabled(false);
-        botUserRepository.save(user);
+        if (user.isNotificationsEnabled()) {
+            user.setNotificationsEnabled(false);
+            botUserRepository.save(user);
+            botStatsService.onNotificationsToggled(false);
+        }
         sendMessage(chatId, "🔕 Bildirimler kapatıldı.");
     }
 
@@ -424,20 +480,12 @@ public class KykMealBot extends TelegramLongPollingBot {
 
     private void sendTodaysMeals(Long chatId) throws TelegramApiException {
         LocalDate today = LocalDate.now();
-        BotUser user = botUserRepository.findById(chatId).orElseThrow();
-        List<Meal> meals = mealService.getMealsByDate(today).stream()
-                .filter(m -> m.getCityId() != null && m.getCityId().equals(user.getCityId() != null ? user.getCityId() : 1))
-                .toList();
-        sendMealMessage(chatId, today, meals);
+        sendMessage(chatId, menuSnapshotStore.getMenuMessage(userActivityTracker.getCityId(chatId), today));
     }
 
     private void sendTomorrowsMeals(Long chatId) throws TelegramApiException {
         LocalDate tomorrow = LocalDate.now().plusDays(1);
-        BotUser user = botUserRepository.findById(chatId).orElseThrow();
-        List<Meal> meals = mealService.getMealsByDate(tomorrow).stream()
-                .filter(m -> m.getCityId() != null && m.getCityId().equals(user.getCityId() != null ? user.getCityId() : 1))
-                .toList();
-        sendMealMessage(chatId, tomorrow, meals);
+        sendMessage(chatId, menuSnapshotStore.getMenuMessage(userActivityTracker.getCityId(chatId), tomorrow));
     }
 
     private void sendWeeklyMeals(Long chatId) throws TelegramApiException {
@@ -451,7 +499,7 @@ public class KykMealBot extends TelegramLongPollingBot {
         
         for (int i = 0; i <= 6; i++) {
             LocalDate date = today.plusDays(i);
-            String label = date.format(DateTimeFormatter.ofPattern("dd MMMM EEEE", new Locale("tr")));
+            String label = date.format(MealMessageFormatter.DAY_LABEL_FORMATTER);
             
             InlineKeyboardButton button = new InlineKeyboardButton();
             button.setText(label);
@@ -467,72 +515,6 @@ public class KykMealBot extends TelegramLongPollingBot {
         execute(sm);
     }
 
-    private void sendMealMessage(Long chatId, LocalDate date, List<Meal> meals) throws TelegramApiException {
-        List<Meal> validMeals = meals.stream().filter(this::isValidMealForDisplay).toList();
-        if (validMeals.isEmpty()) {
-            String formattedDate = date.format(DateTimeFormatter.ofPattern("dd MMMM yyyy", new Locale("tr")));
-            sendMessage(chatId, "📅 " + formattedDate + " tarihine ait menü henüz yayınlanmamış.");
-            return;
-        }
-
-        StringBuilder messageBuilder = new StringBuilder();
-        String formattedDate = date.format(DateTimeFormatter.ofPattern("dd MMMM yyyy", new Locale("tr")));
-        messageBuilder.append("📅 ").append(formattedDate).append("\n━━━━━━━━━━━━━━━━━━\n\n");
-
-        validMeals.stream().filter(meal -> meal.getMealType() == 0).findFirst().ifPresent(breakfast -> {
-            formatMeal(messageBuilder, "🌅 KAHVALTI", breakfast);
-            messageBuilder.append("\n");
-        });
-
-        validMeals.stream().filter(meal -> meal.getMealType() == 1).findFirst().ifPresent(dinner -> formatMeal(messageBuilder, "🍽️ AKŞAM YEMEĞİ", dinner));
-
-        sendMessage(chatId, messageBuilder.toString());
-    }
-
-    private void formatMeal(StringBuilder builder, String title, Meal meal) {
-        String totalCal = meal.getTotalCalories();
-        builder.append(title);
-        if (totalCal != null && !totalCal.trim().isEmpty()) {
-            builder.append(" (").append(totalCal).append(" kcal)");
-        }
-        builder.append("\n━━━━━━━━━━━━━━━━━━\n");
-        formatMealItem(builder, meal.getFirst(), meal.getFirstCalories());
-        formatMealItem(builder, meal.getSecond(), meal.getSecondCalories());
-        formatMealItem(builder, meal.getThird(), meal.getThirdCalories());
-        formatMealItem(builder, meal.getFourth(), meal.getFourthCalories());
-    }
-
-    private void formatMealItem(StringBuilder builder, String item, String calories) {
-        if (item == null || item.trim().isEmpty()) return;
-        builder.append("✓ ").append(item);
-        Integer cal = parseCalories(calories);
-        if (cal != null && cal > 0) {
-            builder.append(" (").append(cal).append(" kcal)");
-        }
-        builder.append("\n");
-    }
-
-    private boolean isValidMealForDisplay(Meal meal) {
-        if (meal == null) return false;
-        String[] items = {meal.getFirst(), meal.getSecond(), meal.getThird(), meal.getFourth()};
-        int validItemCount = 0;
-        for (String item : items) {
-            if (item == null || item.trim().isEmpty()) continue;
-            String lowerItem = item.toLowerCase().trim();
-            if (lowerItem.contains("@") || lowerItem.contains("mail") || lowerItem.contains("gönderip") ||
-                lowerItem.contains("katkı sağla") || lowerItem.contains("uygulamaya") ||
-                lowerItem.contains("listesini") || lowerItem.contains("daha hızlı") ||
-                lowerItem.contains("girilmesine")) return false;
-            if (item.trim().length() >= 3 && item.trim().length() <= 100) validItemCount++;
-        }
-        return validItemCount >= 3;
-    }
-
-    private Integer parseCalories(String calorieStr) {
-        if (calorieStr == null || calorieStr.trim().isEmpty()) return null;
-        try { return Integer.parseInt(calorieStr.trim()); } catch (NumberFormatException e) { return null; }
-    }
-
     private void sendHelpMessage(Long chatId) throws TelegramApiException {
         String helpMessage = """
                 ℹ️ Komut Listesi
@@ -551,9 +533,11 @@ public class KykMealBot extends TelegramLongPollingBot {
                 """ + (adminService.isAdmin(chatId) ? """
                 
                 🔧 Yönetici Komutları:
-                /admin_list [sayfa] - Kullanıcı listesi
+                /admin_list [chatId] - Kullanıcı listesi (ileri/geri butonlu; chatId verilirse ondan sonrası)
                 /admin_user [chatId] - Kullanıcı detayı
-                /admin_fetch - Tüm aktif şehirlerin güncel menülerini API'den çeker
+                /admin_fetch - Tüm aktif şehirlerin güncel menülerini API'den çeker (arka planda)
+                /admin_job [görevId] - Arka plan görevlerinin ilerlemesi
+                /admin_revalidate - Kayıtlı tüm menüleri güncel kurallarla yeniden doğrular (arka planda)
                 /admin_delete_meal [YYYY-MM-DD] - Belirtilen günün tüm menülerini siler
                 /admin_add [chatId] - Admin yetkisi ver
                 /admin_remove [chatId] - Admin yetkisi al
@@ -575,10 +559,7 @@ public class KykMealBot extends TelegramLongPollingBot {
     private void addAdmin(Long requestorChatId, String targetChatIdStr) throws TelegramApiException {
         try {
             Long targetChatId = Long.parseLong(targetChatIdStr);
-            BotUser user = botUserRepository.findById(targetChatId).orElse(null);
-            if (user == null) { sendMessage(requestorChatId, "❌ Bulunamadı."); return; }
-            user.setIsAdmin(true);
-            botUserRepository.save(user);
+            if (!adminService.setAdmin(targetChatId, true)) { sendMessage(requestorChatId, "❌ Bulunamadı."); return; }
             sendMessage(requestorChatId, "✅ Admin eklendi!");
         } catch (NumberFormatException e) { sendMessage(requestorChatId, "❌ Format hatalı!"); }
     }
@@ -586,11 +567,8 @@ public class KykMealBot extends TelegramLongPollingBot {
     private void removeAdmin(Long requestorChatId, String targetChatIdStr) throws TelegramApiException {
         try {
             Long targetChatId = Long.parseLong(targetChatIdStr);
-            BotUser user = botUserRepository.findById(targetChatId).orElse(null);
-            if (user == null) { sendMessage(requestorChatId, "❌ Bulunamadı."); return; }
-            user.setIsAdmin(false);
-            botUserRepository.save(user);
+            if (!adminService.setAdmin(targetChatId, false)) { sendMessage(requestorChatId, "❌ Bulunamadı."); return; }
             sendMessage(requestorChatId, "✅ Admin silindi!");
         } catch (NumberFormatException e) { sendMessage(requestorChatId, "❌ Format hatalı!"); }
     }
-}
\ No newline at end of file
+}
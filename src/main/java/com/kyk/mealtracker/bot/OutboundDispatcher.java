@@ -0,0 +1,258 @@
+package com.kyk.mealtracker.bot;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Toplu gönderimler için merkezi giden mesaj kuyruğu.
+ * Kendi işçi thread'lerinde çalışır, Telegram'ın genel ve sohbet başı limitlerine uyar
+ * ve 429 yanıtlarındaki retry_after süresi kadar bekler.
+ */
+@Component
+public class OutboundDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundDispatcher.class);
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final AbsSender sender;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenBucket globalBucket;
+    private final long perChatIntervalNanos;
+    private final int maxAttempts;
+    private final DelayQueue<Delivery> queue = new DelayQueue<>();
+    private final ConcurrentHashMap<Long, Long> nextAllowedPerChat = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile long pausedUntil = System.nanoTime();
+    private volatile boolean running = true;
+
+    public OutboundDispatcher(@Lazy AbsSender sender,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${telegram.outbound.workers:8}") int workerCount,
+                              @Value("${telegram.outbound.global-rate:30}") double globalRatePerSecond,
+                              @Value("${telegram.outbound.per-chat-interval-ms:1000}") long perChatIntervalMillis,
+                              @Value("${telegram.outbound.max-attempts:5}") int maxAttempts) {
+        this.sender = sender;
+        this.eventPublisher = eventPublisher;
+        this.globalBucket = new TokenBucket(globalRatePerSecond, globalRatePerSecond);
+        this.perChatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(perChatIntervalMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        for (int i = 1; i <= Math.max(1, workerCount); i++) {
+            Thread worker = new Thread(this::runWorker, "telegram-outbound-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    public CompletableFuture<DeliveryStatus> submit(Long chatId, PartialBotApiMethod<?> method) {
+        return submit(chatId, method, null);
+    }
+
+    /**
+     * @param claim ilk gönderim denemesinden hemen önce işçi thread'inde çağrılır (örn. outbox satırını
+     *              SENDING olarak işaretlemek için); false dönerse mesaj gönderilmez ve SKIPPED olur
+     */
+    public CompletableFuture<DeliveryStatus> submit(Long chatId, PartialBotApiMethod<?> method, BooleanSupplier claim) {
+        Delivery delivery = new Delivery(chatId, method, claim, sequence.incrementAndGet());
+        queue.put(delivery);
+        return delivery.result;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runWorker() {
+        while (running) {
+            Delivery delivery;
+            try {
+                delivery = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                process(delivery);
+            } catch (InterruptedException e) {
+                delivery.result.complete(DeliveryStatus.FAILED);
+                return;
+            } catch (Exception e) {
+                logger.error("Giden mesaj işlenemedi - ChatId: " + delivery.chatId, e);
+                delivery.result.complete(DeliveryStatus.FAILED);
+            }
+        }
+    }
+
+    private void process(Delivery delivery) throws InterruptedException {
+        long now = System.nanoTime();
+
+        // 429 sonrası genel bekleme
+        if (now - pausedUntil < 0) {
+            requeue(delivery, pausedUntil);
+            return;
+        }
+
+        // Aynı sohbete saniyede en fazla bir mesaj
+        Long chatSlot = nextAllowedPerChat.get(delivery.chatId);
+        if (chatSlot != null && now - chatSlot < 0) {
+            requeue(delivery, chatSlot);
+            return;
+        }
+
+        if (delivery.claim != null) {
+            boolean claimed = delivery.claim.getAsBoolean();
+            delivery.claim = null;
+            if (!claimed) {
+                delivery.result.complete(DeliveryStatus.SKIPPED);
+                return;
+            }
+        }
+
+        long wait;
+        while ((wait = globalBucket.tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+
+        nextAllowedPerChat.put(delivery.chatId, System.nanoTime() + perChatIntervalNanos);
+        delivery.attempts++;
+        try {
+            execute(delivery.method);
+            delivery.result.complete(DeliveryStatus.SENT);
+        } catch (TelegramApiRequestException e) {
+            handleRequestFailure(delivery, e);
+        } catch (Exception e) {
+            retryOrFail(delivery, System.nanoTime() + RETRY_BACKOFF_NANOS * delivery.attempts, e);
+        } finally {
+            sweepExpiredChatSlots();
+        }
+    }
+
+    private void handleRequestFailure(Delivery delivery, TelegramApiRequestException e) {
+        Integer errorCode = e.getErrorCode();
+        if (errorCode != null && errorCode == 429) {
+            Integer retryAfter = e.getParameters() != null ? e.getParameters().getRetryAfter() : null;
+            long resumeAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter != null ? retryAfter : 1);
+            if (resumeAt - pausedUntil > 0) {
+                pausedUntil = resumeAt;
+            }
+            logger.warn("Telegram hız limiti (429), {} sn bekleniyor. Kuyruk: {}", retryAfter, queue.size());
+            retryOrFail(delivery, resumeAt, e);
+        } else if (errorCode != null && errorCode >= 500) {
+            retryOrFail(delivery, System.nanoTime() + RETRY_BACKOFF_NANOS * delivery.attempts, e);
+        } else if (isPermanentFailure(errorCode, e.getApiResponse())) {
+            logger.debug("Sohbete ulaşılamıyor - ChatId: {}, Hata: {}", delivery.chatId, e.getApiResponse());
+            eventPublisher.publishEvent(new ChatUnreachableEvent(delivery.chatId, e.getApiResponse()));
+            delivery.result.complete(DeliveryStatus.BLOCKED);
+        } else {
+            logger.warn("Mesaj gönderilemedi - ChatId: {}, Hata: {}", delivery.chatId, e.getMessage());
+            delivery.result.complete(DeliveryStatus.FAILED);
+        }
+    }
+
+    static boolean isPermanentFailure(Integer errorCode, String apiResponse) {
+        if (errorCode == null) return false;
+        // 403: bot engellendi, gruptan atıldı ya da kullanıcı hesabını sildi
+        if (errorCode == 403) return true;
+        if (errorCode != 400 || apiResponse == null) return false;
+        String response = apiResponse.toLowerCase(Locale.ROOT);
+        return response.contains("chat not found")
+                || response.contains("user is deactivated")
+                || response.contains("peer_id_invalid")
+                || response.contains("bot was blocked");
+    }
+
+    private void retryOrFail(Delivery delivery, long notBefore, Exception cause) {
+        if (delivery.attempts < maxAttempts) {
+            requeue(delivery, notBefore);
+        } else {
+            logger.warn("Mesaj {} denemede gönderilemedi - ChatId: {}, Hata: {}",
+                    delivery.attempts, delivery.chatId, cause.getMessage());
+            delivery.result.complete(DeliveryStatus.FAILED);
+        }
+    }
+
+    private void requeue(Delivery delivery, long notBefore) {
+        delivery.notBefore = notBefore;
+        queue.put(delivery);
+    }
+
+    private void execute(PartialBotApiMethod<?> method) throws Exception {
+        if (method instanceof SendPhoto sendPhoto) {
+            sender.execute(sendPhoto);
+        } else if (method instanceof BotApiMethod<?> botApiMethod) {
+            executeBotApiMethod(botApiMethod);
+        } else {
+            throw new IllegalArgumentException("Desteklenmeyen method: " + method.getClass().getSimpleName());
+        }
+    }
+
+    private <T extends Serializable> void executeBotApiMethod(BotApiMethod<T> method) throws Exception {
+        sender.execute(method);
+    }
+
+    private void sweepExpiredChatSlots() {
+        if (nextAllowedPerChat.size() < 10_000) return;
+        long now = System.nanoTime();
+        nextAllowedPerChat.values().removeIf(slot -> slot - now < 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        if (!queue.isEmpty()) {
+            logger.warn("Kapanışta kuyrukta {} gönderilmemiş mesaj kaldı", queue.size());
+        }
+    }
+
+    private static final class Delivery implements Delayed {
+        private final Long chatId;
+        private final PartialBotApiMethod<?> method;
+        private BooleanSupplier claim;
+        private final long seq;
+        private final CompletableFuture<DeliveryStatus> result = new CompletableFuture<>();
+        private volatile long notBefore = System.nanoTime();
+        private int attempts = 0;
+
+        private Delivery(Long chatId, PartialBotApiMethod<?> method, BooleanSupplier claim, long seq) {
+            this.chatId = chatId;
+            this.method = method;
+            this.claim = claim;
+            this.seq = seq;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(notBefore - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Delivery that = (Delivery) other;
+            int byTime = Long.signum(notBefore - that.notBefore);
+            return byTime != 0 ? byTime : Long.compare(seq, that.seq);
+        }
+    }
+}
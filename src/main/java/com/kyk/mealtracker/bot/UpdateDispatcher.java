@@ -0,0 +1,114 @@
+package com.kyk.mealtracker.bot;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gelen update'leri long-polling thread'inden alıp chatId'ye göre sabit bir işçiye dağıtır.
+ * Aynı sohbetin update'leri hep aynı işçinin kuyruğuna düştüğü için sırası korunur;
+ * farklı sohbetler paralel işlenir ve yavaş bir istek yalnızca kendi şeridini bekletir.
+ */
+@Component
+public class UpdateDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpdateDispatcher.class);
+
+    private final List<BlockingQueue<Runnable>> lanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private static final int MAX_TRACKED_DROP_CHATS = 10_000;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final Map<Long, AtomicLong> rejectedByChat = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public UpdateDispatcher(@Value("${telegram.inbound.workers:8}") int workerCount,
+                            @Value("${telegram.inbound.queue-capacity:1000}") int queueCapacity) {
+        for (int i = 0; i < Math.max(1, workerCount); i++) {
+            BlockingQueue<Runnable> lane = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            Thread worker = new Thread(() -> runWorker(lane), "telegram-inbound-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            lanes.add(lane);
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Görevi sohbetin şeridine ekler. Şerit doluysa görev atılır; long-polling thread'i hiçbir zaman beklemez.
+     *
+     * @return kuyruğa alındıysa true
+     */
+    public boolean dispatch(Long chatId, Runnable task) {
+        int laneIndex = laneOf(chatId);
+        if (lanes.get(laneIndex).offer(task)) {
+            return true;
+        }
+        long total = rejected.incrementAndGet();
+        if (rejectedByChat.size() >= MAX_TRACKED_DROP_CHATS && !rejectedByChat.containsKey(chatId)) {
+            rejectedByChat.clear();
+        }
+        long forChat = rejectedByChat.computeIfAbsent(chatId, k -> new AtomicLong()).incrementAndGet();
+        logger.warn("Update kuyruğu dolu, update atıldı - ChatId: {}, şerit: {}, bu sohbetten atılan: {}, toplam atılan: {}",
+                chatId, laneIndex + 1, forChat, total);
+        return false;
+    }
+
+    public static Long chatIdOf(Update update) {
+        if (update.hasMessage()) return update.getMessage().getChatId();
+        if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null) {
+            return update.getCallbackQuery().getMessage().getChatId();
+        }
+        return 0L;
+    }
+
+    public int getQueueDepth() {
+        return lanes.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getRejectedCount(Long chatId) {
+        AtomicLong count = rejectedByChat.get(chatId);
+        return count != null ? count.get() : 0;
+    }
+
+    private int laneOf(Long chatId) {
+        return Math.floorMod(Long.hashCode(chatId != null ? chatId : 0L), lanes.size());
+    }
+
+    private void runWorker(BlockingQueue<Runnable> lane) {
+        while (running) {
+            Runnable task;
+            try {
+                task = lane.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("Update işlenemedi", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+}
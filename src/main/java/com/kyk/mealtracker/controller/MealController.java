@@ -2,6 +2,7 @@ package com.kyk.mealtracker.controller;
 
 import com.kyk.mealtracker.entity.Meal;
 import com.kyk.mealtracker.services.MealService;
+import com.kyk.mealtracker.services.SyncSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,13 +17,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MealController {
 
-    private final com.kyk.mealtracker.services.MealSyncService mealSyncService;
+    private final com.kyk.mealtracker.services.MealSyncEngine mealSyncEngine;
 
     @GetMapping("/fetchMeals")
     public ResponseEntity<String> fetchMeals() {
         try {
-            mealSyncService.fetchMealsForAllActiveCities();
-            return ResponseEntity.ok("Yemekler başarıyla çekildi ve kaydedildi!");
+            SyncSummary summary = mealSyncEngine.syncAllActiveCities();
+            return ResponseEntity.ok("Yemekler başarıyla çekildi ve kaydedildi! " + summary);
 
         } catch (Exception e) {
             e.printStackTrace(); // Hata detayını görmek için
@@ -35,6 +35,17 @@ public class BotUser {
     @Column(name = "last_activity_date")
     private LocalDateTime lastActivityDate;
 
+    // İlk mesaj anı; bu sütundan önce kaydolan kullanıcılar için boştur
+    @Column(name = "registered_at")
+    private LocalDateTime registeredAt;
+
     @Column(name = "city_id")
     private Integer cityId;
+
+    // Telegram kalıcı hata döndürdüğünde (engelleme, silinmiş hesap) doldurulur; toplu gönderimlerden çıkarılır
+    @Column(name = "blocked_at")
+    private LocalDateTime blockedAt;
+
+    @Column(name = "blocked_reason")
+    private String blockedReason;
 }
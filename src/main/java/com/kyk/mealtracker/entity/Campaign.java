@@ -0,0 +1,70 @@
+package com.kyk.mealtracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Bir toplu gönderim (öğün bildirimi ya da duyuru). Alıcılar notification_outbox tablosunda tutulur.
+ */
+@Entity
+@Table(name = "campaigns")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class Campaign {
+
+    public enum Type {
+        MEAL_NOTIFICATION,
+        BROADCAST,
+        BROADCAST_IMAGE
+    }
+
+    public enum Status {
+        RUNNING,
+        DONE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Aynı kampanyanın iki kez başlatılmasını engeller (örn. meal-0-2026-10-17)
+    @Column(name = "campaign_key", nullable = false, unique = true)
+    private String campaignKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "meal_type")
+    private Integer mealType;
+
+    @Column(name = "meal_date")
+    private LocalDate mealDate;
+
+    @Column(length = 4096)
+    private String text;
+
+    @Column(name = "photo_file_id")
+    private String photoFileId;
+
+    @Column(name = "requested_by")
+    private Long requestedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -2,10 +2,18 @@ package com.kyk.mealtracker.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.HexFormat;
 
 @Entity
-@Table(name = "meals")
+@Table(name = "meals", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_meals_city_date_type", columnNames = {"city_id", "date", "meal_type"})
+}, indexes = {
+        @Index(name = "idx_meals_date", columnList = "date")
+})
 @Getter // Data yerine daha güvenli olan Getter/Setter kullanabilirsin
 @Setter
 @AllArgsConstructor
@@ -35,4 +43,32 @@ public class Meal {
     private String fourthCalories;
 
     private String totalCalories;
+
+    // Yemek ve kalori alanlarının SHA-256 özeti; değişmeyen menüler yeniden yazılmaz
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Veri alınırken MealValidator tarafından doldurulur; okuma sorguları yalnızca geçerli satırları döndürür
+    @Column(name = "valid", nullable = false, columnDefinition = "boolean default true")
+    @Builder.Default
+    private boolean valid = true;
+
+    // Kaydı reddeden kural (örn. "spam:mail", "too_few_items"), geçerliyse null
+    @Column(name = "rejection_rule", length = 64)
+    private String rejectionRule;
+
+    public String computeContentHash() {
+        String content = String.join("\u0000",
+                String.valueOf(first), String.valueOf(firstCalories),
+                String.valueOf(second), String.valueOf(secondCalories),
+                String.valueOf(third), String.valueOf(thirdCalories),
+                String.valueOf(fourth), String.valueOf(fourthCalories),
+                String.valueOf(totalCalories));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.kyk.mealtracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bir kampanyanın tek bir alıcıya teslimatı. (campaign_id, chat_id) başına tek satır bulunur.
+ */
+@Entity
+@Table(name = "notification_outbox", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbox_campaign_chat", columnNames = {"campaign_id", "chat_id"})
+}, indexes = {
+        @Index(name = "idx_outbox_campaign_status", columnList = "campaign_id, status, id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxMessage {
+
+    public enum Status {
+        PENDING,
+        // Gönderim anında işaretlenir; yeniden başlatmada tekrar gönderilmez
+        SENDING,
+        SENT,
+        FAILED,
+        BLOCKED,
+        SKIPPED,
+        // Gönderim sırasında süreç durdu; Telegram'a ulaşıp ulaşmadığı bilinmez, tekrar gönderilmez
+        UNKNOWN
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "campaign_id", nullable = false)
+    private Long campaignId;
+
+    @Column(name = "chat_id", nullable = false)
+    private Long chatId;
+
+    @Column(name = "city_id")
+    private Integer cityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
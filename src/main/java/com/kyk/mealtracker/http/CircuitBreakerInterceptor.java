@@ -0,0 +1,44 @@
+package com.kyk.mealtracker.http;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Bağlantı hataları, zaman aşımları, 5xx ve 429 yanıtları devre kesiciye hata olarak bildirilir.
+ */
+class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private final UpstreamCircuitBreaker circuitBreaker;
+
+    CircuitBreakerInterceptor(UpstreamCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        if (!circuitBreaker.tryAcquire(host)) {
+            throw new CircuitOpenException(host);
+        }
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onFailure(host);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()
+                || response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            circuitBreaker.onFailure(host);
+        } else {
+            circuitBreaker.onSuccess(host);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,13 @@
+package com.kyk.mealtracker.http;
+
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Devre açık olduğu için istek hiç gönderilmedi.
+ */
+public class CircuitOpenException extends ResourceAccessException {
+
+    public CircuitOpenException(String host) {
+        super("Devre açık, istek gönderilmedi: " + host);
+    }
+}
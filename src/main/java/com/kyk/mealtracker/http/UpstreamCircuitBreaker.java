@@ -0,0 +1,137 @@
+package com.kyk.mealtracker.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Host başına devre kesici. Art arda belirli sayıda hata alınca devre açılır ve o host'a istek gönderilmez;
+ * süre dolunca tek bir deneme isteğine izin verilir. Deneme başarısızsa açık kalma süresi
+ * üst sınıra kadar ikiye katlanır, başarılıysa devre kapanır ve süre sıfırlanır.
+ */
+@Component
+public class UpstreamCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UpstreamCircuitBreaker(@Value("${meal.upstream.circuit.failure-threshold:3}") int failureThreshold,
+                                  @Value("${meal.upstream.circuit.open-ms:30000}") long baseOpenMillis,
+                                  @Value("${meal.upstream.circuit.max-open-ms:1800000}") long maxOpenMillis) {
+        this(failureThreshold, baseOpenMillis, maxOpenMillis, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock System.nanoTime yerine geçer; testler açık kalma süresini beklemeden ilerletir
+     */
+    UpstreamCircuitBreaker(int failureThreshold, long baseOpenMillis, long maxOpenMillis, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpenNanos = TimeUnit.MILLISECONDS.toNanos(baseOpenMillis);
+        this.maxOpenNanos = Math.max(baseOpenNanos, TimeUnit.MILLISECONDS.toNanos(maxOpenMillis));
+    }
+
+    /**
+     * @return istek gönderilebilirse true; devre açıksa ya da deneme isteği zaten sürüyorsa false
+     */
+    public boolean tryAcquire(String host) {
+        return circuit(host).tryAcquire();
+    }
+
+    public void onSuccess(String host) {
+        circuit(host).onSuccess(host);
+    }
+
+    public void onFailure(String host) {
+        circuit(host).onFailure(host);
+    }
+
+    public State getState(String host) {
+        HostCircuit circuit = circuits.get(host);
+        return circuit != null ? circuit.state() : State.CLOSED;
+    }
+
+    /**
+     * Şu an isteğe kapalı olan host'lar; deneme isteği bekleyen (yarı açık) devreler de dahildir.
+     */
+    public Set<String> getOpenHosts() {
+        return circuits.entrySet().stream()
+                .filter(entry -> entry.getValue().state() != State.CLOSED)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private HostCircuit circuit(String host) {
+        return circuits.computeIfAbsent(host, h -> new HostCircuit());
+    }
+
+    private final class HostCircuit {
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openNanos = baseOpenNanos;
+        private long openUntil;
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (state == State.CLOSED) return true;
+            if (state == State.OPEN && nanoClock.getAsLong() - openUntil >= 0) {
+                // Süre doldu: yalnızca bu istek deneme olarak geçer, diğerleri sonucunu bekler
+                state = State.HALF_OPEN;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void onSuccess(String host) {
+            if (state != State.CLOSED) {
+                logger.info("Devre kapandı, {} yeniden erişilebilir", host);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            openNanos = baseOpenNanos;
+        }
+
+        synchronized void onFailure(String host) {
+            if (state == State.HALF_OPEN) {
+                openNanos = Math.min(openNanos * 2, maxOpenNanos);
+                open(host);
+                return;
+            }
+            if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+                open(host);
+            }
+        }
+
+        private void open(String host) {
+            state = State.OPEN;
+            openUntil = nanoClock.getAsLong() + openNanos;
+            logger.warn("Devre açıldı - {} için {} sn boyunca istek gönderilmeyecek",
+                    host, TimeUnit.NANOSECONDS.toSeconds(openNanos));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kyk.mealtracker.http;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Menü API'si (kykyemekliste.com) için paylaşılan HTTP istemcisi.
+ * JDK HttpClient bağlantıları kendi havuzunda canlı tutar, sunucu destekliyorsa HTTP/2 kullanır;
+ * bağlantı ve okuma zaman aşımları sayesinde takılan bir istek senkronizasyon thread'ini sonsuza kadar bekletmez.
+ * Kaynak çöktüğünde devre kesici istekleri keser.
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    @Bean
+    public RestTemplate restTemplate(@Value("${meal.upstream.base-url:https://kykyemekliste.com}") String baseUrl,
+                                     @Value("${meal.upstream.connect-timeout-ms:3000}") long connectTimeoutMillis,
+                                     @Value("${meal.upstream.read-timeout-ms:10000}") long readTimeoutMillis,
+                                     UpstreamCircuitBreaker circuitBreaker) {
+        return createRestTemplate(baseUrl, Duration.ofMillis(connectTimeoutMillis), Duration.ofMillis(readTimeoutMillis),
+                circuitBreaker);
+    }
+
+    /**
+     * Göreli adresler ("/yurt-tunnel/...") baseUrl'e eklenir; testlerde yerel bir sunucuya yönlendirmek için kullanılır.
+     */
+    public static RestTemplate createRestTemplate(String baseUrl, Duration connectTimeout, Duration readTimeout,
+                                                  UpstreamCircuitBreaker circuitBreaker) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "upstream-http-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+        restTemplate.getInterceptors().add(new CircuitBreakerInterceptor(circuitBreaker));
+        restTemplate.getInterceptors().add(new GzipInterceptor());
+        return restTemplate;
+    }
+}
@@ -0,0 +1,75 @@
+package com.kyk.mealtracker.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * bot_users üzerinde JDBC ile yapılan toplu işlemler: etkinlik zamanlarının batch güncellemesi
+ * ve istatistik eşitlemesi için akış halinde okuma.
+ * Zaman damgaları Hibernate ile aynı şekilde (hibernate.jdbc.time_zone=UTC) UTC olarak yazılır ve okunur.
+ */
+@Repository
+public class BotUserBatchRepository {
+
+    // Tekrar yazan kullanıcı artık ulaşılabilir, engel bilgisi de temizlenir
+    private static final String UPDATE_ACTIVITY_SQL = """
+            UPDATE bot_users
+            SET last_interaction_date = ?, last_activity_date = ?, blocked_at = NULL, blocked_reason = NULL
+            WHERE chat_id = ?
+            """;
+
+    private static final String ACTIVE_SINCE_SQL =
+            "SELECT chat_id, last_activity_date FROM bot_users WHERE last_activity_date > ?";
+
+    private static final String REGISTERED_SINCE_SQL =
+            "SELECT registered_at FROM bot_users WHERE registered_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BotUserBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void updateActivity(Map<Long, LocalDateTime> lastSeenByChat) {
+        if (lastSeenByChat.isEmpty()) return;
+        List<Map.Entry<Long, LocalDateTime>> entries = new ArrayList<>(lastSeenByChat.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_ACTIVITY_SQL, entries, 500, (ps, entry) -> {
+            Timestamp seenAt = Timestamp.valueOf(entry.getValue());
+            ps.setTimestamp(1, seenAt, utc());
+            ps.setTimestamp(2, seenAt, utc());
+            ps.setLong(3, entry.getKey());
+        });
+    }
+
+    /**
+     * Verilen andan sonra etkin olan kullanıcıları liste oluşturmadan satır satır okur.
+     */
+    public void forEachActiveSince(LocalDateTime since, BiConsumer<Long, LocalDateTime> consumer) {
+        jdbcTemplate.query(ACTIVE_SINCE_SQL,
+                ps -> ps.setTimestamp(1, Timestamp.valueOf(since), utc()),
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getTimestamp(2, utc()).toLocalDateTime()));
+    }
+
+    public void forEachRegisteredSince(LocalDateTime since, Consumer<LocalDateTime> consumer) {
+        jdbcTemplate.query(REGISTERED_SINCE_SQL,
+                ps -> ps.setTimestamp(1, Timestamp.valueOf(since), utc()),
+                (RowCallbackHandler) rs -> consumer.accept(rs.getTimestamp(1, utc()).toLocalDateTime()));
+    }
+
+    // Calendar thread-safe değildir ve sürücü tarafından değiştirilebilir; her bağlamada yenisi verilir
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+    }
+}
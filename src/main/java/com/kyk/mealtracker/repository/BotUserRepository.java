@@ -1,22 +1,34 @@
 package com.kyk.mealtracker.repository;
 
 import com.kyk.mealtracker.entity.BotUser;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BotUserRepository extends JpaRepository<BotUser, Long> {
-    List<BotUser> findByNotificationsEnabledTrue();
 
-    long countByNotificationsEnabledTrue();
+    long countByBlockedAtIsNotNull();
 
-    long countByLastActivityDateAfter(LocalDateTime date);
+    @Transactional
+    @Modifying
+    @Query("UPDATE BotUser b SET b.blockedAt = :now, b.blockedReason = :reason WHERE b.chatId = :chatId AND b.blockedAt IS NULL")
+    int markUnreachable(@Param("chatId") Long chatId, @Param("reason") String reason, @Param("now") LocalDateTime now);
 
-    long countByLastInteractionDateAfter(LocalDateTime date);
+    long countByNotificationsEnabledTrue();
 
     List<BotUser> findByIsAdminTrue();
 
-    @org.springframework.data.jpa.repository.Query("SELECT DISTINCT b.cityId FROM BotUser b WHERE b.cityId IS NOT NULL")
+    // /admin_list için chatId imleçli (keyset) sayfalama; OFFSET taraması ve count(*) yapılmaz
+    List<BotUser> findByChatIdGreaterThanOrderByChatIdAsc(Long afterChatId, Limit limit);
+
+    List<BotUser> findByChatIdLessThanOrderByChatIdDesc(Long beforeChatId, Limit limit);
+
+    @Query("SELECT DISTINCT b.cityId FROM BotUser b WHERE b.cityId IS NOT NULL AND b.blockedAt IS NULL")
     List<Integer> findDistinctCityIds();
 }
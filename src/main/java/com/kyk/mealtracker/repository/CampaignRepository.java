@@ -0,0 +1,13 @@
+package com.kyk.mealtracker.repository;
+
+import com.kyk.mealtracker.entity.Campaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+    Optional<Campaign> findByCampaignKey(String campaignKey);
+
+    List<Campaign> findByStatus(Campaign.Status status);
+}
@@ -0,0 +1,50 @@
+package com.kyk.mealtracker.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * city_sync_status tablosu: şehir başına son başarılı senkronizasyon anı.
+ * JPA tarafıyla (hibernate.jdbc.time_zone=UTC) aynı şekilde UTC olarak yazılır ve okunur.
+ */
+@Repository
+public class CitySyncStatusRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO city_sync_status (city_id, last_successful_sync) VALUES (?, ?)
+            ON CONFLICT (city_id) DO UPDATE SET last_successful_sync = EXCLUDED.last_successful_sync
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CitySyncStatusRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void markSynced(int cityId, LocalDateTime at) {
+        jdbcTemplate.update(UPSERT_SQL, ps -> {
+            ps.setInt(1, cityId);
+            ps.setTimestamp(2, Timestamp.valueOf(at), utc());
+        });
+    }
+
+    public Map<Integer, LocalDateTime> findAll() {
+        Map<Integer, LocalDateTime> result = new HashMap<>();
+        jdbcTemplate.query("SELECT city_id, last_successful_sync FROM city_sync_status",
+                (RowCallbackHandler) rs -> result.put(rs.getInt(1), rs.getTimestamp(2, utc()).toLocalDateTime()));
+        return result;
+    }
+
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+    }
+}
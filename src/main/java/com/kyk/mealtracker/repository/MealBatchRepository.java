@@ -0,0 +1,164 @@
+package com.kyk.mealtracker.repository;
+
+import com.kyk.mealtracker.entity.Meal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Yemekleri (city_id, date, meal_type) anahtarına göre toplu olarak ekler/günceller.
+ * Satır başına select + save yerine JDBC batch ile tek ifade kullanılır.
+ * Geçersiz (spam, eksik) bir kayıt aynı güne ait geçerli kaydın üzerine yazılmaz; son geçerli menü görünür kalır.
+ */
+@Repository
+public class MealBatchRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO meals (date, meal_type, city_id,
+                               first, first_calories, second, second_calories,
+                               third, third_calories, fourth, fourth_calories, total_calories, content_hash,
+                               valid, rejection_rule)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (city_id, date, meal_type) DO UPDATE SET
+                first = EXCLUDED.first,
+                first_calories = EXCLUDED.first_calories,
+                second = EXCLUDED.second,
+                second_calories = EXCLUDED.second_calories,
+                third = EXCLUDED.third,
+                third_calories = EXCLUDED.third_calories,
+                fourth = EXCLUDED.fourth,
+                fourth_calories = EXCLUDED.fourth_calories,
+                total_calories = EXCLUDED.total_calories,
+                content_hash = EXCLUDED.content_hash,
+                valid = EXCLUDED.valid,
+                rejection_rule = EXCLUDED.rejection_rule
+            WHERE (meals.valid = FALSE OR EXCLUDED.valid = TRUE)
+              AND (meals.content_hash IS DISTINCT FROM EXCLUDED.content_hash
+                   OR meals.rejection_rule IS DISTINCT FROM EXCLUDED.rejection_rule)
+            """;
+
+    private static final String CONTENT_HASH_SQL = """
+            SELECT date, meal_type, content_hash, valid FROM meals
+            WHERE city_id = ? AND date BETWEEN ? AND ?
+            """;
+
+    private static final String VALIDATION_PAGE_SQL = """
+            SELECT id, city_id, date, first, second, third, fourth, rejection_rule FROM meals
+            WHERE id > ? ORDER BY id LIMIT ?
+            """;
+
+    private static final String UPDATE_VALIDATION_SQL = "UPDATE meals SET valid = ?, rejection_rule = ? WHERE id = ?";
+
+    public record Key(Integer cityId, LocalDate date, Integer mealType) {
+        public static Key of(Meal meal) {
+            return new Key(meal.getCityId(), meal.getDate(), meal.getMealType());
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public MealBatchRepository(JdbcTemplate jdbcTemplate, @Value("${meal.sync.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * @param contentHash özeti henüz hesaplanmamış eski kayıtlar için null
+     */
+    public record StoredMeal(String contentHash, boolean valid) {
+    }
+
+    /**
+     * Şehrin verilen tarih aralığındaki kayıtlarının içerik özetlerini ve geçerliliklerini tek sorguda getirir.
+     */
+    public Map<Key, StoredMeal> findStoredMeals(int cityId, LocalDate from, LocalDate to) {
+        Map<Key, StoredMeal> stored = new HashMap<>();
+        jdbcTemplate.query(CONTENT_HASH_SQL, rs -> {
+            Key key = new Key(cityId, rs.getDate("date").toLocalDate(), rs.getObject("meal_type", Integer.class));
+            stored.put(key, new StoredMeal(rs.getString("content_hash"), rs.getBoolean("valid")));
+        }, cityId, Date.valueOf(from), Date.valueOf(to));
+        return stored;
+    }
+
+    /**
+     * Doğrulama için gereken sütunları id sırasıyla, sayfa sayfa okur.
+     */
+    public List<ValidationRow> findValidationPage(long afterId, int limit) {
+        return jdbcTemplate.query(VALIDATION_PAGE_SQL, (rs, rowNum) -> new ValidationRow(
+                rs.getLong("id"),
+                rs.getObject("city_id", Integer.class),
+                rs.getDate("date").toLocalDate(),
+                rs.getString("first"),
+                rs.getString("second"),
+                rs.getString("third"),
+                rs.getString("fourth"),
+                rs.getString("rejection_rule")), afterId, limit);
+    }
+
+    public void updateValidation(List<ValidationRow> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPDATE_VALIDATION_SQL, rows, batchSize, (ps, row) -> {
+            ps.setBoolean(1, row.rejectionRule() == null);
+            ps.setString(2, row.rejectionRule());
+            ps.setLong(3, row.id());
+        });
+    }
+
+    public record ValidationRow(long id, Integer cityId, LocalDate date,
+                                String first, String second, String third, String fourth, String rejectionRule) {
+
+        public ValidationRow withRejectionRule(String rule) {
+            return new ValidationRow(id, cityId, date, first, second, third, fourth, rule);
+        }
+    }
+
+    public int upsertAll(List<Meal> meals) {
+        if (meals.isEmpty()) return 0;
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, meals, batchSize, this::bind);
+        int rows = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Sürücü yeniden yazılmış batch'lerde SUCCESS_NO_INFO (-2) dönebilir
+                rows += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+            }
+        }
+        return rows;
+    }
+
+    private void bind(PreparedStatement ps, Meal meal) throws SQLException {
+        ps.setDate(1, Date.valueOf(meal.getDate()));
+        setInteger(ps, 2, meal.getMealType());
+        setInteger(ps, 3, meal.getCityId());
+        ps.setString(4, meal.getFirst());
+        ps.setString(5, meal.getFirstCalories());
+        ps.setString(6, meal.getSecond());
+        ps.setString(7, meal.getSecondCalories());
+        ps.setString(8, meal.getThird());
+        ps.setString(9, meal.getThirdCalories());
+        ps.setString(10, meal.getFourth());
+        ps.setString(11, meal.getFourthCalories());
+        ps.setString(12, meal.getTotalCalories());
+        ps.setString(13, meal.getContentHash());
+        ps.setBoolean(14, meal.isValid());
+        ps.setString(15, meal.getRejectionRule());
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
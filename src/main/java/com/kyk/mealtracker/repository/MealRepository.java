@@ -5,15 +5,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 public interface MealRepository extends JpaRepository<Meal, Long> {
-    Optional<Meal> findByDateAndMealTypeAndCityId(LocalDate date, Integer mealType, Integer cityId);
-    void deleteByDateAndMealTypeAndCityId(LocalDate date, Integer mealType, Integer cityId);
-    List<Meal> findByDate(LocalDate date);
-    List<Meal> findByDateAndMealType(LocalDate date, Integer mealType);
-    List<Meal> findByDateAndCityId(LocalDate date, Integer cityId);
-    List<Meal> findByDateBetweenAndCityId(LocalDate startDate, LocalDate endDate, Integer cityId);
+    // Okumalar (city_id, date, meal_type) benzersiz indeksinin ön ekini ya da idx_meals_date'i kullanır
+    List<Meal> findByDateAndCityIdAndValidTrue(LocalDate date, Integer cityId);
+    List<Meal> findByDateBetweenAndValidTrue(LocalDate startDate, LocalDate endDate);
     void deleteByDate(LocalDate date);
-    void deleteByDateAndCityId(LocalDate date, Integer cityId);
 }
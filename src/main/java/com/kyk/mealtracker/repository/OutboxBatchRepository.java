@@ -0,0 +1,45 @@
+package com.kyk.mealtracker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Kampanya alıcılarını notification_outbox tablosuna ekler. Alıcılar uygulamaya hiç yüklenmez;
+ * kullanıcı kitlesi tek bir INSERT ... SELECT ile veritabanında kopyalanır.
+ * Aynı (campaign_id, chat_id) ikinci kez eklenmez.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxBatchRepository {
+
+    // Şehri seçilmemiş kullanıcılar varsayılan olarak 1 (Adana) alır
+    private static final String INSERT_AUDIENCE_SQL = """
+            INSERT INTO notification_outbox (campaign_id, chat_id, city_id, status)
+            SELECT ?, chat_id, COALESCE(city_id, 1), 'PENDING' FROM bot_users
+            WHERE %s
+            ON CONFLICT DO NOTHING
+            """;
+
+    public enum Audience {
+        // Öğün bildirimleri: bildirimi açık ve ulaşılabilir kullanıcılar
+        NOTIFICATION_SUBSCRIBERS("notifications_enabled = TRUE AND blocked_at IS NULL"),
+        // Duyurular: ulaşılabilir tüm kullanıcılar
+        ALL_REACHABLE("blocked_at IS NULL");
+
+        private final String sql;
+
+        Audience(String condition) {
+            this.sql = INSERT_AUDIENCE_SQL.formatted(condition);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return eklenen alıcı sayısı
+     */
+    public int insertPending(Long campaignId, Audience audience) {
+        return jdbcTemplate.update(audience.sql, campaignId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.kyk.mealtracker.repository;
+
+import com.kyk.mealtracker.entity.OutboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    List<OutboxMessage> findByCampaignIdAndStatusAndIdGreaterThanOrderByIdAsc(
+            Long campaignId, OutboxMessage.Status status, Long afterId, Limit limit);
+
+    long countByCampaignIdAndStatus(Long campaignId, OutboxMessage.Status status);
+
+    long countByStatus(OutboxMessage.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = :to, o.updatedAt = :now WHERE o.id = :id AND o.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") OutboxMessage.Status from,
+                   @Param("to") OutboxMessage.Status to,
+                   @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = :to, o.updatedAt = :now WHERE o.campaignId = :campaignId AND o.status = :from")
+    int transitionAll(@Param("campaignId") Long campaignId,
+                      @Param("from") OutboxMessage.Status from,
+                      @Param("to") OutboxMessage.Status to,
+                      @Param("now") LocalDateTime now);
+}
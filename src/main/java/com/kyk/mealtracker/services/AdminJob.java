@@ -0,0 +1,91 @@
+package com.kyk.mealtracker.services;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Arka planda çalışan bir yönetici görevi (duyuru, menü çekme, yeniden doğrulama) ve ilerlemesi.
+ */
+@Getter
+public class AdminJob {
+
+    public enum Type {
+        BROADCAST,
+        BROADCAST_IMAGE,
+        FETCH,
+        REVALIDATE
+    }
+
+    public enum Status {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private final long id;
+    private final Type type;
+    private final Long requestedBy;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    // Botu engellemiş ya da hesabı silinmiş sohbetler
+    private final AtomicInteger unreachable = new AtomicInteger();
+    // Gönderilecek metin üretilemediği için atlanan sohbetler
+    private final AtomicInteger skipped = new AtomicInteger();
+    private volatile int total;
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String result;
+
+    public AdminJob(long id, Type type, Long requestedBy) {
+        this.id = id;
+        this.type = type;
+        this.requestedBy = requestedBy;
+    }
+
+    void setTotal(int total) {
+        this.total = total;
+    }
+
+    void finish(Status status, String result) {
+        this.result = result;
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    public String describe() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("🧾 Görev #%d (%s)\n", id, type));
+        builder.append("Durum: ").append(switch (status) {
+            case RUNNING -> "⏳ Çalışıyor";
+            case DONE -> "✅ Tamamlandı";
+            case FAILED -> "❌ Hata";
+        }).append("\n");
+        if (type == Type.BROADCAST || type == Type.BROADCAST_IMAGE) {
+            builder.append(String.format(MealMessageFormatter.TURKISH, "📤 %,d/%,d gönderildi", sent.get(), total));
+            if (failed.get() > 0) {
+                builder.append(String.format(MealMessageFormatter.TURKISH, " (%,d başarısız)", failed.get()));
+            }
+            if (unreachable.get() > 0) {
+                builder.append(String.format(MealMessageFormatter.TURKISH, "\n🚫 %,d ulaşılamayan", unreachable.get()));
+            }
+            if (skipped.get() > 0) {
+                builder.append(String.format(MealMessageFormatter.TURKISH, "\n⏭️ %,d atlanan", skipped.get()));
+            }
+            builder.append("\n");
+        }
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        builder.append("⏱️ Süre: ").append(Duration.between(startedAt, end).toSeconds()).append(" sn");
+        if (result != null) {
+            builder.append("\n").append(result);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,190 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.bot.DeliveryStatus;
+import com.kyk.mealtracker.bot.OutboundDispatcher;
+import com.kyk.mealtracker.entity.Campaign;
+import com.kyk.mealtracker.repository.OutboxBatchRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Duyuru, /admin_fetch ve /admin_revalidate gibi uzun süren yönetici komutlarını
+ * long-polling thread'ini meşgul etmeden arka planda çalıştırır.
+ */
+@Service
+public class AdminJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminJobService.class);
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    private final OutboundDispatcher outboundDispatcher;
+    private final OutboxService outboxService;
+    private final MealSyncEngine mealSyncEngine;
+    private final MealService mealService;
+    private final ConcurrentHashMap<Long, AdminJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobSequence = new AtomicLong();
+    private final ExecutorService executor;
+
+    public AdminJobService(OutboundDispatcher outboundDispatcher,
+                           OutboxService outboxService, MealSyncEngine mealSyncEngine, MealService mealService) {
+        this.outboundDispatcher = outboundDispatcher;
+        this.outboxService = outboxService;
+        this.mealSyncEngine = mealSyncEngine;
+        this.mealService = mealService;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "admin-job-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public AdminJob startBroadcast(Long adminChatId, String message) {
+        return start(AdminJob.Type.BROADCAST, adminChatId, job -> runBroadcast(job, Campaign.builder()
+                .type(Campaign.Type.BROADCAST)
+                .text("📢 Duyuru\n\n" + message)));
+    }
+
+    public AdminJob startImageBroadcast(Long adminChatId, String fileId, String caption) {
+        return start(AdminJob.Type.BROADCAST_IMAGE, adminChatId, job -> runBroadcast(job, Campaign.builder()
+                .type(Campaign.Type.BROADCAST_IMAGE)
+                .photoFileId(fileId)
+                .text("📢 Duyuru\n\n" + caption)));
+    }
+
+    public AdminJob startFetch(Long adminChatId) {
+        return start(AdminJob.Type.FETCH, adminChatId, job -> onExecutor(() -> {
+            // Elle çekim doğrulayıcıları yok sayar; kaynak sessizce düzeltilmiş olsa bile veriler yenilenir
+            SyncSummary summary = mealSyncEngine.syncAllActiveCities(true);
+            return String.format("🏙️ Şehir: %d (hatalı: %d, atlanan: %d)\n📝 Eklenen: %d, Güncellenen: %d, Değişmeyen: %d",
+                    summary.getResults().size(),
+                    summary.count(CitySyncResult.Status.FAILED),
+                    summary.count(CitySyncResult.Status.SKIPPED),
+                    summary.getInserted(),
+                    summary.getUpdated(),
+                    summary.getUnchanged());
+        }));
+    }
+
+    public AdminJob startRevalidate(Long adminChatId) {
+        return start(AdminJob.Type.REVALIDATE, adminChatId, job -> onExecutor(() -> {
+            MealService.RevalidationResult result = mealService.revalidateAll();
+            return String.format(MealMessageFormatter.TURKISH,
+                    "🔎 Taranan: %,d\n✅ Geçerli hale gelen: %,d\n🚫 Reddedilen: %,d",
+                    result.scanned(), result.nowValid(), result.nowRejected());
+        }));
+    }
+
+    public Optional<AdminJob> getJob(long id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<AdminJob> getRecentJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong(AdminJob::getId).reversed())
+                .toList();
+    }
+
+    /**
+     * Görev, gövdenin döndürdüğü iş tamamlandığında bitirilir; gövde uzun bekleyişleri iş parçacığı tutmadan yapmalıdır.
+     */
+    private AdminJob start(AdminJob.Type type, Long adminChatId, Function<AdminJob, CompletableFuture<String>> body) {
+        AdminJob job = new AdminJob(jobSequence.incrementAndGet(), type, adminChatId);
+        jobs.put(job.getId(), job);
+        evictFinishedJobs();
+
+        CompletableFuture<String> result;
+        try {
+            result = body.apply(job);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((text, error) -> {
+            if (error == null) {
+                job.finish(AdminJob.Status.DONE, text);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                logger.error("Yönetici görevi #" + job.getId() + " başarısız oldu", cause);
+                job.finish(AdminJob.Status.FAILED, "Hata: " + cause.getMessage());
+            }
+            notifyAdmin(job);
+        });
+        return job;
+    }
+
+    private CompletableFuture<String> onExecutor(Supplier<String> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Yalnızca kampanyanın oluşturulması yönetici havuzunda çalışır; gönderim outbox işçilerinde sürer
+     * ve görev onFinished ile tamamlanır. Uzun bir duyuru /admin_fetch ya da /admin_revalidate'i bekletmez.
+     */
+    private CompletableFuture<String> runBroadcast(AdminJob job, Campaign.CampaignBuilder campaign) {
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        return CompletableFuture.supplyAsync(() -> outboxService.start(campaign
+                .campaignKey("broadcast-" + UUID.randomUUID())
+                .requestedBy(job.getRequestedBy())
+                .build(), OutboxBatchRepository.Audience.ALL_REACHABLE, new OutboxService.DeliveryListener() {
+            @Override
+            public void onTotal(long total) {
+                job.setTotal((int) total);
+            }
+
+            @Override
+            public void onDelivery(DeliveryStatus status) {
+                switch (status) {
+                    case SENT -> job.getSent().incrementAndGet();
+                    case BLOCKED -> job.getUnreachable().incrementAndGet();
+                    case SKIPPED -> job.getSkipped().incrementAndGet();
+                    case FAILED -> job.getFailed().incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onFinished() {
+                finished.complete(null);
+            }
+        }), executor).thenCompose(started -> finished.thenApply(done -> "Kampanya #" + started.getId()));
+    }
+
+    private void notifyAdmin(AdminJob job) {
+        if (job.getRequestedBy() == null) return;
+        SendMessage message = new SendMessage();
+        message.setChatId(job.getRequestedBy());
+        message.setText(job.describe());
+        outboundDispatcher.submit(job.getRequestedBy(), message);
+    }
+
+    private void evictFinishedJobs() {
+        List<AdminJob> finished = jobs.values().stream()
+                .filter(AdminJob::isFinished)
+                .sorted(Comparator.comparingLong(AdminJob::getId))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -3,31 +3,80 @@ package com.kyk.mealtracker.services;
 import com.kyk.mealtracker.entity.BotUser;
 import com.kyk.mealtracker.repository.BotUserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
+    private static final int USER_PAGE_SIZE = 10;
+
     private final BotUserRepository botUserRepository;
+    private final BotStatsService botStatsService;
+
+    // Yönetici listesi küçük ve nadiren değişir; rol kontrolleri veritabanına gitmez
+    private volatile Set<Long> adminChatIds;
 
     public boolean isAdmin(Long chatId) {
-        return botUserRepository.findById(chatId)
-                .map(user -> user.getIsAdmin() != null && user.getIsAdmin())
-                .orElse(false);
+        return getAdminChatIds().contains(chatId);
+    }
+
+    public Set<Long> getAdminChatIds() {
+        Set<Long> admins = adminChatIds;
+        if (admins == null) {
+            refreshAdmins();
+            admins = adminChatIds;
+        }
+        return admins;
+    }
+
+    /**
+     * Veritabanına doğrudan (SQL ile) verilen yetkilerin de görülmesi için düzenli olarak yenilenir.
+     */
+    @Scheduled(fixedDelayString = "${admin.cache.refresh-interval-ms:60000}")
+    public synchronized void refreshAdmins() {
+        adminChatIds = botUserRepository.findByIsAdminTrue().stream()
+                .map(BotUser::getChatId)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @return kullanıcı bulunamazsa false
+     */
+    @Transactional
+    public synchronized boolean setAdmin(Long chatId, boolean admin) {
+        BotUser user = botUserRepository.findById(chatId).orElse(null);
+        if (user == null) return false;
+        user.setIsAdmin(admin);
+        botUserRepository.save(user);
+
+        Set<Long> updated = new HashSet<>(getAdminChatIds());
+        if (admin) {
+            updated.add(chatId);
+        } else {
+            updated.remove(chatId);
+        }
+        adminChatIds = Set.copyOf(updated);
+        return true;
     }
 
     public String getBotStats() {
-        long totalUsers = botUserRepository.count();
-        long activeNotifications = botUserRepository.countByNotificationsEnabledTrue();
-        long last24HoursActive = botUserRepository.countByLastActivityDateAfter(LocalDateTime.now().minusHours(24));
-        long last24HoursNew = botUserRepository.countByLastInteractionDateAfter(LocalDateTime.now().minusHours(24));
+        BotStatsService.Snapshot stats = botStatsService.snapshot();
+        long totalUsers = stats.totalUsers();
+        long activeNotifications = stats.notificationsEnabled();
+        long last24HoursActive = stats.activeLast24Hours();
+        long last24HoursNew = stats.registeredLast24Hours();
+        long unreachable = stats.unreachable();
 
         return String.format("""
                 📊 Bot İstatistikleri:
@@ -35,6 +84,7 @@ public class AdminService {
                 👥 Toplam Kullanıcı: %d
                 🔔 Bildirim Alan Kullanıcı: %d
                 🔕 Bildirimi Kapalı Kullanıcı: %d
+                🚫 Ulaşılamayan (botu engellemiş): %d
 
                 📅 Son 24 Saat:
                 - Aktif Kullanıcı: %d
@@ -43,15 +93,36 @@ public class AdminService {
                 totalUsers,
                 activeNotifications,
                 totalUsers - activeNotifications,
+                unreachable,
                 last24HoursActive,
                 last24HoursNew);
     }
 
-    public String getUserList(int page) {
-        Page<BotUser> users = botUserRepository.findAll(PageRequest.of(page, 10));
+    /**
+     * afterChatId'den sonraki sayfa; null ise ilk sayfa.
+     */
+    public UserListPage getUserPageAfter(Long afterChatId) {
+        List<BotUser> rows = botUserRepository.findByChatIdGreaterThanOrderByChatIdAsc(
+                afterChatId != null ? afterChatId : Long.MIN_VALUE, Limit.of(USER_PAGE_SIZE + 1));
+        boolean hasNext = rows.size() > USER_PAGE_SIZE;
+        return renderUserPage(hasNext ? rows.subList(0, USER_PAGE_SIZE) : rows, afterChatId != null, hasNext);
+    }
+
+    public UserListPage getUserPageBefore(Long beforeChatId) {
+        List<BotUser> rows = botUserRepository.findByChatIdLessThanOrderByChatIdDesc(beforeChatId, Limit.of(USER_PAGE_SIZE + 1));
+        if (rows.isEmpty()) {
+            return getUserPageAfter(null);
+        }
+        boolean hasPrevious = rows.size() > USER_PAGE_SIZE;
+        List<BotUser> page = new ArrayList<>(hasPrevious ? rows.subList(0, USER_PAGE_SIZE) : rows);
+        Collections.reverse(page);
+        return renderUserPage(page, hasPrevious, true);
+    }
+
+    private UserListPage renderUserPage(List<BotUser> users, boolean hasPrevious, boolean hasNext) {
         StringBuilder message = new StringBuilder("👥 Kullanıcı Listesi:\n\n");
 
-        users.getContent().forEach(user -> {
+        users.forEach(user -> {
             String adminBadge = (user.getIsAdmin() != null && user.getIsAdmin()) ? "🔧 " : "";
             message.append(String.format("%s%s %s (@%s)\n📱 Chat ID: %d\n🔔 Bildirim: %s\n\n",
                     adminBadge,
@@ -62,13 +133,12 @@ public class AdminService {
                     user.isNotificationsEnabled() ? "Açık ✅" : "Kapalı ❌"));
         });
 
-        message.append(String.format("Sayfa %d/%d", page + 1, users.getTotalPages()));
-        return message.toString();
+        message.append(String.format("Toplam %d kullanıcı", botStatsService.getTotalUsers()));
+        Long first = users.isEmpty() ? null : users.get(0).getChatId();
+        Long last = users.isEmpty() ? null : users.get(users.size() - 1).getChatId();
+        return new UserListPage(message.toString(), first, last, hasPrevious && first != null, hasNext && last != null);
     }
 
-    @Transactional
-    public void broadcastMessage(String message) {
-        List<BotUser> allUsers = botUserRepository.findAll();
-        // Bu liste KykMealBot'a gönderilecek
+    public record UserListPage(String text, Long firstChatId, Long lastChatId, boolean hasPrevious, boolean hasNext) {
     }
 }
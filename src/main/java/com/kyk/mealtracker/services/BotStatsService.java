@@ -0,0 +1,160 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.repository.BotUserBatchRepository;
+import com.kyk.mealtracker.repository.BotUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Yönetici istatistikleri için bellekte tutulan sayaçlar. Kayıt, bildirim tercihi, erişilebilirlik
+ * ve etkinlik olaylarıyla artımlı güncellenir; son 24 saat değerleri dakikalık kova halkasından okunur.
+ * Olay kaçırılması ya da başka bir örneğin yazdıkları için sayaçlar belirli aralıklarla veritabanıyla eşitlenir.
+ */
+@Service
+public class BotStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BotStatsService.class);
+    private static final int WINDOW_MINUTES = 24 * 60;
+
+    public record Snapshot(long totalUsers, long notificationsEnabled, long unreachable,
+                           long activeLast24Hours, long registeredLast24Hours) {
+    }
+
+    private final BotUserRepository botUserRepository;
+    private final BotUserBatchRepository botUserBatchRepository;
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong notificationsEnabled = new AtomicLong();
+    private final AtomicLong unreachable = new AtomicLong();
+    // Son 24 saatte etkin olan farklı kullanıcılar: her kullanıcı yalnızca son etkin olduğu dakikanın kovasında sayılır
+    private final MinuteBucketRing activeRing = new MinuteBucketRing(WINDOW_MINUTES);
+    private final Map<Long, Long> lastActiveMinute = new HashMap<>();
+    private final MinuteBucketRing registrationRing = new MinuteBucketRing(WINDOW_MINUTES);
+    private volatile boolean loaded;
+
+    public BotStatsService(BotUserRepository botUserRepository, BotUserBatchRepository botUserBatchRepository) {
+        this.botUserRepository = botUserRepository;
+        this.botUserBatchRepository = botUserBatchRepository;
+    }
+
+    public Snapshot snapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+        long now = currentMinute();
+        long active;
+        synchronized (activeRing) {
+            active = activeRing.sum(now);
+        }
+        long registered;
+        synchronized (registrationRing) {
+            registered = registrationRing.sum(now);
+        }
+        return new Snapshot(totalUsers.get(), notificationsEnabled.get(), unreachable.get(), active, registered);
+    }
+
+    public long getTotalUsers() {
+        if (!loaded) {
+            reconcile();
+        }
+        return totalUsers.get();
+    }
+
+    public void recordActivity(Long chatId) {
+        long now = currentMinute();
+        synchronized (activeRing) {
+            Long previous = lastActiveMinute.put(chatId, now);
+            if (previous != null && previous == now) return;
+            if (previous != null) {
+                activeRing.add(previous, -1, now);
+            }
+            activeRing.add(now, 1, now);
+        }
+    }
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        totalUsers.incrementAndGet();
+        // Yeni kullanıcılar bildirimleri açık olarak başlar
+        notificationsEnabled.incrementAndGet();
+        long now = currentMinute();
+        synchronized (registrationRing) {
+            registrationRing.add(now, 1, now);
+        }
+    }
+
+    public void onNotificationsToggled(boolean enabled) {
+        if (enabled) {
+            notificationsEnabled.incrementAndGet();
+        } else {
+            notificationsEnabled.decrementAndGet();
+        }
+    }
+
+    public void onReachabilityChanged(boolean reachable) {
+        if (reachable) {
+            unreachable.decrementAndGet();
+        } else {
+            unreachable.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sayaçları ve 24 saatlik pencereleri veritabanından yeniden kurar. Etkinlik satırları akış halinde okunur;
+     * henüz yazılmamış (tamponda bekleyen) daha yeni etkinlikler korunur.
+     */
+    @Scheduled(fixedDelayString = "${bot.stats.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        long start = System.nanoTime();
+        long previousTotal = totalUsers.get();
+        totalUsers.set(botUserRepository.count());
+        notificationsEnabled.set(botUserRepository.countByNotificationsEnabledTrue());
+        unreachable.set(botUserRepository.countByBlockedAtIsNotNull());
+
+        LocalDateTime since = LocalDateTime.now().minusMinutes(WINDOW_MINUTES);
+        Map<Long, Long> active = new HashMap<>();
+        botUserBatchRepository.forEachActiveSince(since, (chatId, at) -> active.put(chatId, toMinute(at)));
+        Map<Long, Integer> registrationsPerMinute = new HashMap<>();
+        botUserBatchRepository.forEachRegisteredSince(since, at -> registrationsPerMinute.merge(toMinute(at), 1, Integer::sum));
+
+        long now = currentMinute();
+        synchronized (activeRing) {
+            lastActiveMinute.forEach((chatId, minute) -> active.merge(chatId, minute, Math::max));
+            lastActiveMinute.clear();
+            activeRing.clear();
+            active.forEach((chatId, minute) -> {
+                if (now - minute < WINDOW_MINUTES) {
+                    lastActiveMinute.put(chatId, minute);
+                    activeRing.add(minute, 1, now);
+                }
+            });
+        }
+        synchronized (registrationRing) {
+            registrationRing.clear();
+            registrationsPerMinute.forEach((minute, count) -> registrationRing.add(minute, count, now));
+        }
+
+        if (loaded && previousTotal != totalUsers.get()) {
+            logger.info("Kullanıcı sayacı veritabanıyla eşitlendi: {} -> {}", previousTotal, totalUsers.get());
+        }
+        loaded = true;
+        logger.debug("İstatistikler eşitlendi ({} ms)", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return TimeUnit.SECONDS.toMinutes(time.atZone(ZoneId.systemDefault()).toEpochSecond());
+    }
+}
@@ -0,0 +1,44 @@
+package com.kyk.mealtracker.services;
+
+/**
+ * Tek bir şehir için yapılan senkronizasyonun sonucu.
+ * httpCallsSaved / bytesSaved, eski gün-gün çekme yöntemine göre yapılmayan istekleri gösterir;
+ * listsNotModified, 304 ya da aynı gövde döndüğü için çözümlenmeden atlanan menü listeleridir.
+ */
+public record CitySyncResult(
+        int cityId,
+        Status status,
+        int inserted,
+        int updated,
+        int unchanged,
+        int httpCalls,
+        long bytesDownloaded,
+        int httpCallsSaved,
+        long bytesSaved,
+        int listsNotModified,
+        long durationMillis,
+        String error) {
+
+    public enum Status {
+        OK,
+        FAILED,
+        SKIPPED
+    }
+
+    public static CitySyncResult failed(int cityId, long durationMillis, String error) {
+        return new CitySyncResult(cityId, Status.FAILED, 0, 0, 0, 0, 0, 0, 0, 0, durationMillis, error);
+    }
+
+    public static CitySyncResult skipped(int cityId, String reason) {
+        return new CitySyncResult(cityId, Status.SKIPPED, 0, 0, 0, 0, 0, 0, 0, 0, 0, reason);
+    }
+
+    public int rowsChanged() {
+        return inserted + updated;
+    }
+
+    public CitySyncResult withDuration(long durationMillis) {
+        return new CitySyncResult(cityId, status, inserted, updated, unchanged, httpCalls, bytesDownloaded,
+                httpCallsSaved, bytesSaved, listsNotModified, durationMillis, error);
+    }
+}
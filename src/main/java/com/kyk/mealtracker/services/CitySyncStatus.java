@@ -0,0 +1,71 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.http.UpstreamCircuitBreaker;
+import com.kyk.mealtracker.repository.CitySyncStatusRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Şehir başına son başarılı senkronizasyonu bellekte tutar ve veritabanına yazar.
+ * Okumalar bu bilgiyle gösterilen menünün bayat olup olmadığına karar verir.
+ */
+@Service
+public class CitySyncStatus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CitySyncStatus.class);
+
+    private final CitySyncStatusRepository repository;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final Duration staleAfter;
+    private final Map<Integer, LocalDateTime> lastSuccessfulSync = new ConcurrentHashMap<>();
+
+    public CitySyncStatus(CitySyncStatusRepository repository, UpstreamCircuitBreaker circuitBreaker,
+                          @Value("${meal.sync.stale-after-hours:26}") long staleAfterHours) {
+        this.repository = repository;
+        this.circuitBreaker = circuitBreaker;
+        this.staleAfter = Duration.ofHours(staleAfterHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lastSuccessfulSync.putAll(repository.findAll());
+        logger.info("{} şehrin son senkronizasyon zamanı yüklendi", lastSuccessfulSync.size());
+    }
+
+    public void markSynced(int cityId) {
+        LocalDateTime now = LocalDateTime.now();
+        lastSuccessfulSync.put(cityId, now);
+        try {
+            repository.markSynced(cityId, now);
+        } catch (Exception e) {
+            // Bellekteki değer yeterli; kalıcı kayıt bir sonraki senkronizasyonda yeniden denenir
+            logger.warn("{} ID'li şehrin senkronizasyon zamanı kaydedilemedi: {}", cityId, e.getMessage());
+        }
+    }
+
+    public Optional<LocalDateTime> getLastSuccessfulSync(int cityId) {
+        return Optional.ofNullable(lastSuccessfulSync.get(cityId));
+    }
+
+    /**
+     * Hiç senkronize edilmemiş ya da son başarılı senkronizasyonu eşikten eski olan şehirler bayattır.
+     */
+    public boolean isStale(int cityId) {
+        LocalDateTime last = lastSuccessfulSync.get(cityId);
+        return last == null || last.isBefore(LocalDateTime.now().minus(staleAfter));
+    }
+
+    public boolean isUpstreamAvailable() {
+        return circuitBreaker.getOpenHosts().isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.repository.MealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * (şehir, tarih) anahtarlı, yalnızca geçerli kayıtları tutan menü önbelleği. İlk okumada veritabanından yüklenir,
+ * senkronizasyon satır değiştirdiğinde ilgili anahtarlar geçersiz kılınır.
+ */
+@Component
+public class MealCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealCache.class);
+
+    public record Key(Integer cityId, LocalDate date) {
+    }
+
+    private final MealRepository mealRepository;
+    private final ConcurrentHashMap<Key, List<Meal>> entries = new ConcurrentHashMap<>();
+
+    public MealCache(MealRepository mealRepository) {
+        this.mealRepository = mealRepository;
+    }
+
+    public List<Meal> get(Integer cityId, LocalDate date) {
+        return entries.computeIfAbsent(new Key(cityId, date),
+                key -> List.copyOf(mealRepository.findByDateAndCityIdAndValidTrue(key.date(), key.cityId())));
+    }
+
+    /**
+     * Açık bir işlem varsa anahtarlar commit sonrasında silinir; böylece eşzamanlı bir okuma
+     * önbelleği commit edilmemiş eski veriyle yeniden dolduramaz.
+     */
+    public void invalidate(Collection<Key> keys) {
+        if (keys.isEmpty()) return;
+        Set<Key> snapshot = Set.copyOf(keys);
+        runAfterCommit(() -> snapshot.forEach(entries::remove));
+    }
+
+    public void invalidateDate(LocalDate date) {
+        runAfterCommit(() -> entries.keySet().removeIf(key -> key.date().equals(date)));
+    }
+
+    public void clear() {
+        runAfterCommit(entries::clear);
+    }
+
+    // Geçmiş günlerin menüleri artık sorgulanmaz
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDates() {
+        LocalDate today = LocalDate.now();
+        int before = entries.size();
+        entries.keySet().removeIf(key -> key.date().isBefore(today));
+        logger.info("Menü önbelleğinden {} eski kayıt silindi", before - entries.size());
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
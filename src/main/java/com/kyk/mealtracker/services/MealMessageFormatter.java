@@ -0,0 +1,134 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.entity.Meal;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Menü ve bildirim metinlerini üretir. Formatlayıcı ve yerel ayar bir kez oluşturulur.
+ */
+@Component
+public class MealMessageFormatter {
+
+    public static final Locale TURKISH = new Locale("tr");
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy", TURKISH);
+    public static final DateTimeFormatter DAY_LABEL_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM EEEE", TURKISH);
+    public static final DateTimeFormatter SYNC_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM HH:mm", TURKISH);
+    private static final String SEPARATOR = "━━━━━━━━━━━━━━━━━━\n";
+
+    /**
+     * /bugun, /yarin ve haftalık seçimde gösterilen günlük menü mesajı.
+     * Liste yalnızca geçerli (valid) kayıtlardan oluşmalıdır.
+     */
+    public String renderDayMenu(LocalDate date, List<Meal> meals) {
+        Meal breakfast = null;
+        Meal dinner = null;
+        for (Meal meal : meals) {
+            if (breakfast == null && Integer.valueOf(0).equals(meal.getMealType())) breakfast = meal;
+            if (dinner == null && Integer.valueOf(1).equals(meal.getMealType())) dinner = meal;
+        }
+
+        String formattedDate = date.format(DATE_FORMATTER);
+        if (breakfast == null && dinner == null) {
+            return "📅 " + formattedDate + " tarihine ait menü henüz yayınlanmamış.";
+        }
+
+        StringBuilder builder = new StringBuilder(512);
+        builder.append("📅 ").append(formattedDate).append("\n").append(SEPARATOR).append("\n");
+        if (breakfast != null) {
+            appendMenuSection(builder, "🌅 KAHVALTI", breakfast);
+            builder.append("\n");
+        }
+        if (dinner != null) {
+            appendMenuSection(builder, "🍽️ AKŞAM YEMEĞİ", dinner);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Şehrin verisi bayatken son bilinen menünün altına eklenir. Kaynağa ulaşılamadığı yalnızca
+     * devre kesici açıkken söylenir; aksi halde yenileme sürerken yalnızca son güncelleme zamanı gösterilir.
+     */
+    public String renderStaleNote(LocalDateTime lastSuccessfulSync, boolean upstreamAvailable) {
+        String lastUpdate = lastSuccessfulSync.format(SYNC_TIME_FORMATTER);
+        if (upstreamAvailable) {
+            return "\n\nℹ️ Son güncelleme: " + lastUpdate + ". Menü yenileniyor.";
+        }
+        return "\n\n⚠️ Menü kaynağına şu an ulaşılamıyor, son bilinen menü gösteriliyor (son güncelleme: "
+                + lastUpdate + ").";
+    }
+
+    public String renderUpstreamUnavailableNote() {
+        return "\n\n⚠️ Menü kaynağına şu an ulaşılamıyor; menü yayınlandıysa kısa süre içinde görünecektir.";
+    }
+
+    public String renderNotification(int mealType, LocalDate date, Meal meal) {
+        StringBuilder builder = new StringBuilder(256);
+        if (mealType == 0) {
+            builder.append("🌟 Günaydın! İşte bugünün kahvaltı menüsü:\n\n");
+        } else {
+            builder.append("🌟 Afiyet olsun! İşte bugünün akşam yemeği menüsü:\n\n");
+        }
+        builder.append("📅 ").append(date.format(DATE_FORMATTER)).append("\n\n");
+        appendMealDetails(builder, mealType == 0 ? "🌅 KAHVALTI" : "🌙 AKŞAM YEMEĞİ", meal);
+        return builder.toString();
+    }
+
+    private void appendMenuSection(StringBuilder builder, String title, Meal meal) {
+        String totalCal = meal.getTotalCalories();
+        builder.append(title);
+        if (totalCal != null && !totalCal.trim().isEmpty()) {
+            builder.append(" (").append(totalCal).append(" kcal)");
+        }
+        builder.append("\n").append(SEPARATOR);
+        appendMenuItem(builder, meal.getFirst(), meal.getFirstCalories());
+        appendMenuItem(builder, meal.getSecond(), meal.getSecondCalories());
+        appendMenuItem(builder, meal.getThird(), meal.getThirdCalories());
+        appendMenuItem(builder, meal.getFourth(), meal.getFourthCalories());
+    }
+
+    private void appendMenuItem(StringBuilder builder, String item, String calories) {
+        if (item == null || item.trim().isEmpty()) return;
+        builder.append("✓ ").append(item);
+        Integer cal = parseCalories(calories);
+        if (cal != null && cal > 0) {
+            builder.append(" (").append(cal).append(" kcal)");
+        }
+        builder.append("\n");
+    }
+
+    private Integer parseCalories(String calorieStr) {
+        if (calorieStr == null || calorieStr.trim().isEmpty()) return null;
+        try { return Integer.parseInt(calorieStr.trim()); } catch (NumberFormatException e) { return null; }
+    }
+
+    private void appendMealDetails(StringBuilder builder, String title, Meal meal) {
+        String totalCal = meal.getTotalCalories(); // Integer yerine String
+
+        builder.append(title);
+        if (totalCal != null && !totalCal.trim().isEmpty()) {
+            builder.append(" (").append(totalCal).append(" kcal)");
+        }
+        builder.append("\n");
+
+        appendMealItem(builder, meal.getFirst(), meal.getFirstCalories());
+        appendMealItem(builder, meal.getSecond(), meal.getSecondCalories());
+        appendMealItem(builder, meal.getThird(), meal.getThirdCalories());
+        appendMealItem(builder, meal.getFourth(), meal.getFourthCalories());
+    }
+
+    private void appendMealItem(StringBuilder builder, String item, String calories) {
+        if (item == null || item.trim().isEmpty()) return;
+
+        builder.append("• ").append(item);
+        if (calories != null && !calories.trim().isEmpty()) {
+            builder.append(" (").append(calories).append(" kcal)");
+        }
+        builder.append("\n");
+    }
+}
@@ -1,73 +1,154 @@
 package com.kyk.mealtracker.services;
 
 import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.repository.MealBatchRepository;
 import com.kyk.mealtracker.repository.MealRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 public class MealService {
 
+    private static final int REVALIDATION_PAGE_SIZE = 1000;
+
     private final MealRepository mealRepository;
+    private final MealBatchRepository mealBatchRepository;
+    private final MealCache mealCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MealValidator mealValidator;
+    private final MenuListValidators menuListValidators;
 
     @Transactional
-    public void saveAllMeals(List<Meal> meals) {
-        for (Meal meal : meals) {
-            try {
-                mealRepository.findByDateAndMealTypeAndCityId(meal.getDate(), meal.getMealType(), meal.getCityId())
-                        .ifPresentOrElse(
-                                existingMeal -> {
-                                    // ID'yi koruyarak güncelleme yap
-                                    meal.setId(existingMeal.getId());
-                                    mealRepository.save(meal);
-                                },
-                                () -> {
-                                    // Yeni kayıt ekle
-                                    meal.setId(null); // ID'yi null yaparak yeni kayıt oluştur
-                                    mealRepository.save(meal);
-                                }
-                        );
-            } catch (Exception e) {
-                e.printStackTrace();
-                // Bir kayıt hata verirse diğerlerine devam et
-                continue;
-            }
-        }
+    public MealUpsertResult saveAllMeals(List<Meal> meals) {
+        return saveAllMeals(meals, false);
     }
 
+    /**
+     * Listeyi (cityId, date, mealType) anahtarına göre toplu olarak ekler ya da günceller.
+     * İçerik özeti veritabanındakiyle aynı olan satırlar hiç yazılmaz.
+     *
+     * @param validated kayıtlar çağıran tarafından zaten {@link MealValidator} ile doğrulandıysa true
+     */
     @Transactional
-    public void saveMealIfNotExists(Meal meal) {
-        mealRepository.findByDateAndMealTypeAndCityId(meal.getDate(), meal.getMealType(), meal.getCityId())
-                .ifPresentOrElse(
-                        existingMeal -> {
-                            // Sadece mevcut kayıt yoksa veya değişiklik varsa güncelle
-                            if (!existingMeal.equals(meal)) {
-                                meal.setId(existingMeal.getId());
-                                mealRepository.save(meal);
-                            }
-                        },
-                        () -> {
-                            meal.setId(null);
-                            mealRepository.save(meal);
-                        }
-                );
+    public MealUpsertResult saveAllMeals(List<Meal> meals, boolean validated) {
+        if (meals.isEmpty()) return MealUpsertResult.EMPTY;
+
+        Map<Integer, List<Meal>> mealsByCity = meals.stream()
+                .collect(Collectors.groupingBy(Meal::getCityId));
+
+        List<Meal> changed = new ArrayList<>();
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for (Map.Entry<Integer, List<Meal>> entry : mealsByCity.entrySet()) {
+            List<Meal> cityMeals = entry.getValue();
+            LocalDate from = cityMeals.stream().map(Meal::getDate).min(LocalDate::compareTo).orElseThrow();
+            LocalDate to = cityMeals.stream().map(Meal::getDate).max(LocalDate::compareTo).orElseThrow();
+            Map<MealBatchRepository.Key, MealBatchRepository.StoredMeal> existing =
+                    mealBatchRepository.findStoredMeals(entry.getKey(), from, to);
+
+            for (Meal meal : cityMeals) {
+                if (!validated) mealValidator.validate(meal);
+                String hash = meal.computeContentHash();
+                meal.setContentHash(hash);
+                MealBatchRepository.StoredMeal stored = existing.get(MealBatchRepository.Key.of(meal));
+                if (stored == null) {
+                    inserted++;
+                    changed.add(meal);
+                } else if (stored.valid() && !meal.isValid()) {
+                    // Kaynak geçerli bir günün yerine spam/yer tutucu yayınladıysa son geçerli menü korunur
+                    unchanged++;
+                } else if (!hash.equals(stored.contentHash())) {
+                    updated++;
+                    changed.add(meal);
+                } else {
+                    unchanged++;
+                }
+            }
+        }
+
+        mealBatchRepository.upsertAll(changed);
+        Set<MealCache.Key> changedKeys = changed.stream()
+                .map(meal -> new MealCache.Key(meal.getCityId(), meal.getDate()))
+                .collect(Collectors.toSet());
+        mealCache.invalidate(changedKeys);
+        if (!changedKeys.isEmpty()) {
+            eventPublisher.publishEvent(new MealsChangedEvent(changedKeys));
+        }
+        return new MealUpsertResult(inserted, updated, unchanged);
     }
 
-    public List<Meal> getMealsByDate(LocalDate date) {
-        return mealRepository.findByDate(date);
+    @Transactional
+    public MealUpsertResult saveMealIfNotExists(Meal meal) {
+        return saveAllMeals(List.of(meal));
     }
 
-    public List<Meal> getMealsByDateAndType(LocalDate date, Integer mealType) {
-        return mealRepository.findByDateAndMealType(date, mealType);
+    /**
+     * Önbellekten okunur; dönen liste değiştirilemez.
+     */
+    public List<Meal> getMealsByDateAndCity(LocalDate date, Integer cityId) {
+        return mealCache.get(cityId, date);
     }
 
     @Transactional
     public void deleteMealsByDate(LocalDate date) {
         mealRepository.deleteByDate(date);
+        mealCache.invalidateDate(date);
+        // Silinen gün kaynakta değişmemiş olsa da bir sonraki senkronizasyonda yeniden yazılmalı
+        menuListValidators.clear();
+        eventPublisher.publishEvent(new MealsChangedEvent(IntStream.rangeClosed(1, 81)
+                .mapToObj(cityId -> new MealCache.Key(cityId, date))
+                .collect(Collectors.toSet())));
+    }
+
+    /**
+     * Tüm geçmiş kayıtları güncel kurallarla sayfa sayfa yeniden doğrular ve yalnızca
+     * sonucu değişen satırları günceller.
+     */
+    public RevalidationResult revalidateAll() {
+        long lastId = 0;
+        int scanned = 0;
+        int nowValid = 0;
+        int nowRejected = 0;
+        Set<MealCache.Key> changedKeys = new HashSet<>();
+        List<MealBatchRepository.ValidationRow> page;
+        do {
+            page = mealBatchRepository.findValidationPage(lastId, REVALIDATION_PAGE_SIZE);
+            List<MealBatchRepository.ValidationRow> changed = new ArrayList<>();
+            for (MealBatchRepository.ValidationRow row : page) {
+                String rule = mealValidator.findRejectionRule(row.first(), row.second(), row.third(), row.fourth());
+                if (!Objects.equals(rule, row.rejectionRule())) {
+                    changed.add(row.withRejectionRule(rule));
+                    changedKeys.add(new MealCache.Key(row.cityId(), row.date()));
+                    if (rule == null) nowValid++;
+                    else nowRejected++;
+                }
+                lastId = row.id();
+            }
+            mealBatchRepository.updateValidation(changed);
+            scanned += page.size();
+        } while (page.size() == REVALIDATION_PAGE_SIZE);
+
+        if (!changedKeys.isEmpty()) {
+            mealCache.invalidate(changedKeys);
+            eventPublisher.publishEvent(new MealsChangedEvent(changedKeys));
+        }
+        return new RevalidationResult(scanned, nowValid, nowRejected);
+    }
+
+    public record RevalidationResult(int scanned, int nowValid, int nowRejected) {
     }
 }
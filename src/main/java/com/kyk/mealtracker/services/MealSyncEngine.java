@@ -0,0 +1,200 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.http.CircuitOpenException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Şehirleri sınırlı sayıda paralel işçiyle senkronize eder.
+ * Her şehrin kendi zaman aşımı vardır; yavaş ya da hatalı bir şehir diğerlerini bekletmez.
+ * Aynı şehir ya da tam senkronizasyon için aynı anda gelen istekler devam eden tek çalışmayı paylaşır.
+ */
+@Service
+public class MealSyncEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealSyncEngine.class);
+    private static final int MIN_CITY_ID = 1;
+    private static final int MAX_CITY_ID = 81;
+
+    private final MealSyncService mealSyncService;
+    private final MealService mealService;
+    private final CitySyncStatus citySyncStatus;
+    private final long cityTimeoutMillis;
+    private final long refreshIntervalMillis;
+    private final Map<Integer, CompletableFuture<CitySyncResult>> inFlightCities = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> lastRefreshAttempt = new ConcurrentHashMap<>();
+    private final AtomicReference<CompletableFuture<SyncSummary>> inFlightFullSync = new AtomicReference<>();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService watchdog;
+
+    public MealSyncEngine(MealSyncService mealSyncService,
+                          MealService mealService,
+                          CitySyncStatus citySyncStatus,
+                          @Value("${meal.sync.parallelism:4}") int parallelism,
+                          @Value("${meal.sync.city-timeout-seconds:60}") long cityTimeoutSeconds,
+                          @Value("${meal.sync.city-refresh-interval-minutes:15}") long refreshIntervalMinutes) {
+        this.mealSyncService = mealSyncService;
+        this.mealService = mealService;
+        this.citySyncStatus = citySyncStatus;
+        this.cityTimeoutMillis = TimeUnit.SECONDS.toMillis(cityTimeoutSeconds);
+        this.refreshIntervalMillis = TimeUnit.MINUTES.toMillis(refreshIntervalMinutes);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread thread = new Thread(r, "meal-sync-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "meal-sync-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SyncSummary syncAllActiveCities() {
+        return syncAllActiveCities(false);
+    }
+
+    /**
+     * @param force değişmemiş listeleri de indirip yeniden kaydeder (admin elle çekim)
+     */
+    public SyncSummary syncAllActiveCities(boolean force) {
+        CompletableFuture<SyncSummary> created = new CompletableFuture<>();
+        CompletableFuture<SyncSummary> running = inFlightFullSync.compareAndExchange(null, created);
+        if (running != null) {
+            // Cron, /admin_fetch ve /fetchMeals üst üste gelirse ikinci çağrı ilkinin sonucunu bekler
+            logger.info("Devam eden yemek senkronizasyonu bekleniyor");
+            return running.join();
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            SyncSummary summary = sync(mealSyncService.findActiveCityIds(), today, endOfMonth(today), force);
+            created.complete(summary);
+            return summary;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightFullSync.set(null);
+        }
+    }
+
+    /**
+     * Şehrin menüsü bugün için yoksa ya da son senkronizasyonu bayatsa arka planda yalnızca o şehri yeniler.
+     * Aynı şehir için {@code meal.sync.city-refresh-interval-minutes} içinde en fazla bir yenileme başlatılır.
+     *
+     * @return başlatılan ya da devam eden yenileme; gerek yoksa boş
+     */
+    public Optional<CompletableFuture<CitySyncResult>> refreshCityIfNeeded(int cityId) {
+        if (cityId < MIN_CITY_ID || cityId > MAX_CITY_ID) return Optional.empty();
+        LocalDate today = LocalDate.now();
+        boolean missing = mealService.getMealsByDateAndCity(today, cityId).isEmpty();
+        if (!missing && !citySyncStatus.isStale(cityId)) return Optional.empty();
+
+        CompletableFuture<CitySyncResult> running = inFlightCities.get(cityId);
+        if (running != null) return Optional.of(running);
+        long now = System.currentTimeMillis();
+        Long last = lastRefreshAttempt.get(cityId);
+        if (last != null && now - last < refreshIntervalMillis) return Optional.empty();
+        lastRefreshAttempt.put(cityId, now);
+
+        logger.info("{} ID'li şehir arka planda yenileniyor (menü eksik: {})", cityId, missing);
+        return Optional.of(submit(cityId, today, endOfMonth(today), false));
+    }
+
+    private static LocalDate endOfMonth(LocalDate date) {
+        return date.withDayOfMonth(date.lengthOfMonth());
+    }
+
+    public SyncSummary sync(Collection<Integer> cityIds, LocalDate from, LocalDate to) {
+        return sync(cityIds, from, to, false);
+    }
+
+    public SyncSummary sync(Collection<Integer> cityIds, LocalDate from, LocalDate to, boolean force) {
+        logger.info("Yemek senkronizasyonu başlatılıyor... Tarih: {} - {}, Şehirler: {}, Zorunlu: {}", from, to, cityIds, force);
+
+        List<CompletableFuture<CitySyncResult>> futures = new ArrayList<>();
+        for (Integer cityId : new LinkedHashSet<>(cityIds)) {
+            if (cityId == null || cityId < MIN_CITY_ID || cityId > MAX_CITY_ID) {
+                futures.add(CompletableFuture.completedFuture(
+                        CitySyncResult.skipped(cityId != null ? cityId : 0, "geçersiz şehir kodu")));
+                continue;
+            }
+            futures.add(submit(cityId, from, to, force));
+        }
+
+        SyncSummary summary = new SyncSummary();
+        futures.forEach(future -> summary.add(future.join()));
+        logger.info("Yemek senkronizasyonu tamamlandı. {}", summary);
+        return summary;
+    }
+
+    /**
+     * Şehir zaten senkronize ediliyorsa yeni iş açılmaz, devam eden işin sonucu döner.
+     * Zaman aşımında yalnızca bekleyenler serbest bırakılır; işçi thread'i kesilmez (JDBC işlemi yarıda kalabilir),
+     * takılan HTTP çağrısını okuma zaman aşımı sonlandırır. Şehir, işçi gerçekten bitene kadar devam ediyor sayılır.
+     */
+    private CompletableFuture<CitySyncResult> submit(int cityId, LocalDate from, LocalDate to, boolean force) {
+        CompletableFuture<CitySyncResult> result = new CompletableFuture<>();
+        CompletableFuture<CitySyncResult> running = inFlightCities.putIfAbsent(cityId, result);
+        if (running != null) {
+            return running;
+        }
+        try {
+            workers.execute(() -> runCity(cityId, from, to, force, result));
+        } catch (RuntimeException e) {
+            inFlightCities.remove(cityId, result);
+            result.complete(CitySyncResult.failed(cityId, 0, "iş kuyruğa alınamadı"));
+        }
+        return result;
+    }
+
+    private void runCity(int cityId, LocalDate from, LocalDate to, boolean force, CompletableFuture<CitySyncResult> result) {
+        long start = System.currentTimeMillis();
+        // Zaman aşımı şehir işe başladığında başlar, kuyrukta beklenen süre sayılmaz
+        ScheduledFuture<?> timeout = watchdog.schedule(() -> {
+            if (result.complete(CitySyncResult.failed(cityId, cityTimeoutMillis, "zaman aşımı"))) {
+                logger.warn("{} ID'li şehir {} ms içinde tamamlanamadı, sonucu beklenmeyecek", cityId, cityTimeoutMillis);
+            }
+        }, cityTimeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            CitySyncResult cityResult = mealSyncService.syncCity(cityId, from, to, force);
+            result.complete(cityResult.withDuration(System.currentTimeMillis() - start));
+        } catch (CircuitOpenException e) {
+            result.complete(CitySyncResult.skipped(cityId, "menü kaynağı devre dışı"));
+        } catch (Exception e) {
+            logger.error("{} ID'li şehir için menü kontrolünde hata: {}", cityId, e.getMessage());
+            result.complete(CitySyncResult.failed(cityId, System.currentTimeMillis() - start, e.getMessage()));
+        } finally {
+            timeout.cancel(false);
+            // Kayıt ancak syncCity döndükten sonra silinir; zaman aşımına uğramış bir iş sürerken ikinci bir iş başlamaz
+            inFlightCities.remove(cityId, result);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        watchdog.shutdownNow();
+    }
+}
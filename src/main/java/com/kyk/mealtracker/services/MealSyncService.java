@@ -1,100 +1,154 @@
 package com.kyk.mealtracker.services;
 
 import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.http.CircuitOpenException;
 import com.kyk.mealtracker.repository.BotUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 public class MealSyncService {
 
     private static final Logger logger = LoggerFactory.getLogger(MealSyncService.class);
+    private static final String MENU_URL = "/yurt-tunnel/menu/liste?cityId=%d&mealType=%d";
+    private static final int[] MEAL_TYPES = {0, 1};
 
     private final MealService mealService;
     private final RestTemplate restTemplate;
     private final BotUserRepository botUserRepository;
+    private final MenuListParser menuListParser;
+    private final MealValidator mealValidator;
+    private final MenuListValidators menuListValidators;
+    private final CitySyncStatus citySyncStatus;
 
-    public void fetchMealsForAllActiveCities() {
-        LocalDate today = LocalDate.now();
-        LocalDate endOfMonth = today.withDayOfMonth(today.lengthOfMonth());
-
-        List<Integer> activeCityIds = botUserRepository.findDistinctCityIds();
+    public List<Integer> findActiveCityIds() {
+        List<Integer> activeCityIds = new ArrayList<>(botUserRepository.findDistinctCityIds());
         if (activeCityIds.isEmpty()) {
             activeCityIds.add(1); // Default
         }
+        return activeCityIds;
+    }
 
-        logger.info("Manuel/Otomatik yemek kontrolü başlatılıyor... Tarih: {}, Aktif Şehirler: {}", today, activeCityIds);
+    public void fetchMealsForDateAndCity(LocalDate date, Integer cityId) {
+        syncCity(cityId, date, date);
+    }
 
-        for (Integer cityId : activeCityIds) {
-            for (LocalDate date = today; !date.isAfter(endOfMonth); date = date.plusDays(1)) {
-                try {
-                    checkAndSaveMeal(date, 0, cityId);
-                    checkAndSaveMeal(date, 1, cityId);
-                } catch (Exception e) {
-                    logger.error("{} tarihli ve {} ID'li şehir için menü kontrolünde hata: {}", date, cityId, e.getMessage());
-                }
+    public CitySyncResult syncCity(int cityId, LocalDate from, LocalDate to) {
+        return syncCity(cityId, from, to, false);
+    }
+
+    /**
+     * Şehrin her öğün listesini tek seferde indirir, [from, to] aralığındaki günlere ayırır
+     * ve tüm aralığı tek geçişte kaydeder. Liste son senkronizasyondan beri değişmediyse
+     * (304 ya da aynı gövde) çözümlenmez ve kaydedilmez.
+     *
+     * @param force doğrulayıcıları yok sayar ve listeleri koşulsuz indirip yeniden kaydeder
+     */
+    public CitySyncResult syncCity(int cityId, LocalDate from, LocalDate to, boolean force) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<Meal> batch = new ArrayList<>();
+        Map<String, MenuListValidators.Validators> refreshed = new LinkedHashMap<>();
+        int httpCalls = 0;
+        long bytesDownloaded = 0;
+        long bytesSaved = 0;
+        int listsNotModified = 0;
+
+        for (int mealType : MEAL_TYPES) {
+            String url = String.format(MENU_URL, cityId, mealType);
+            Optional<MenuListValidators.Validators> known = force
+                    ? Optional.empty()
+                    : menuListValidators.find(url, from, to);
+            ResponseEntity<byte[]> response = fetchMenuList(url, known.orElse(null));
+            httpCalls++;
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                listsNotModified++;
+                continue;
+            }
+
+            byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+            bytesDownloaded += body.length;
+            // Eski yöntem aynı listeyi her gün için yeniden indiriyordu
+            bytesSaved += (long) body.length * (days - 1);
+
+            String bodyHash = sha256(body);
+            if (known.isPresent() && bodyHash.equals(known.get().bodyHash())) {
+                listsNotModified++;
+                continue;
             }
+            refreshed.put(url, new MenuListValidators.Validators(
+                    response.getHeaders().getETag(),
+                    response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+                    bodyHash, from, to));
+
+            // Aynı güne ait birden fazla kayıt varsa sonuncu geçerli kayıt kazanır;
+            // geçerli kaydı olmayan günler de reddedilme nedeniyle birlikte saklanır
+            Map<LocalDate, Meal> mealsByDate = new TreeMap<>();
+            // Aralık dışındaki kayıtlar çözümleyicide atlanır, buraya yalnızca [from, to] içindekiler gelir
+            menuListParser.parse(body, from, to, meal -> {
+                meal.setCityId(cityId); // Ensure cityId is set
+                boolean valid = mealValidator.validate(meal);
+                Meal existing = mealsByDate.get(meal.getDate());
+                if (existing == null || valid || !existing.isValid()) {
+                    mealsByDate.put(meal.getDate(), meal);
+                }
+            });
+            batch.addAll(mealsByDate.values());
         }
-        logger.info("Yemek kontrolü tamamlandı.");
-    }
 
-    public void fetchMealsForDateAndCity(LocalDate date, Integer cityId) {
-        checkAndSaveMeal(date, 0, cityId);
-        checkAndSaveMeal(date, 1, cityId);
+        // Kayıtlar çözümleme sırasında doğrulandı
+        MealUpsertResult upsert = mealService.saveAllMeals(batch, true);
+        // Doğrulayıcılar ancak liste kaydedildikten sonra saklanır; kayıt hatasında sonraki çekim yeniden dener
+        refreshed.forEach(menuListValidators::put);
+        citySyncStatus.markSynced(cityId);
+
+        return new CitySyncResult(cityId, CitySyncResult.Status.OK,
+                upsert.inserted(), upsert.updated(), upsert.unchanged(), httpCalls, bytesDownloaded,
+                MEAL_TYPES.length * days - httpCalls, bytesSaved, listsNotModified, 0, null);
     }
 
-    private void checkAndSaveMeal(LocalDate date, int mealType, int cityId) {
-        String url = String.format("https://kykyemekliste.com/yurt-tunnel/menu/liste?cityId=%d&mealType=%d", cityId, mealType);
+    private ResponseEntity<byte[]> fetchMenuList(String url, MenuListValidators.Validators known) {
+        HttpHeaders headers = new HttpHeaders();
+        if (known != null) {
+            if (known.etag() != null) headers.setIfNoneMatch(known.etag());
+            if (known.lastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, known.lastModified());
+        }
         try {
-            Meal[] meals = restTemplate.getForObject(url, Meal[].class);
-            if (meals != null) {
-                Arrays.stream(meals)
-                        .filter(meal -> meal.getDate().equals(date))
-                        .filter(this::isValidMeal)
-                        .reduce((first, second) -> second)
-                        .ifPresent(meal -> {
-                            meal.setCityId(cityId); // Ensure cityId is set
-                            mealService.saveMealIfNotExists(meal);
-                        });
-            }
+            return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        } catch (CircuitOpenException e) {
+            // Devre açıkken her şehir için ayrı hata loglanmaz
+            throw e;
         } catch (Exception e) {
             logger.error("API çağrısı hatası - URL: {}, Hata: {}", url, e.getMessage());
             throw e;
         }
     }
 
-    private boolean isValidMeal(Meal meal) {
-        if (meal == null) return false;
-
-        String[] items = {
-                meal.getFirst(),
-                meal.getSecond(),
-                meal.getThird(),
-                meal.getFourth()
-        };
-
-        int validItemCount = 0;
-        for (String item : items) {
-            if (item == null || item.trim().isEmpty()) continue;
-
-            String lowerItem = item.toLowerCase().trim();
-            if (lowerItem.contains("@") || lowerItem.contains("mail")) return false;
-            if (lowerItem.contains("gönderip") || lowerItem.contains("katkı sağla") ||
-                lowerItem.contains("uygulamaya") || lowerItem.contains("listesini") ||
-                lowerItem.contains("daha hızlı") || lowerItem.contains("girilmesine")) return false;
-
-            if (item.trim().length() >= 3 && item.trim().length() <= 100) {
-                validItemCount++;
-            }
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
         }
-        return validItemCount >= 3;
     }
 }
@@ -0,0 +1,14 @@
+package com.kyk.mealtracker.services;
+
+/**
+ * Toplu kayıt sonucu: yeni eklenen, içeriği değiştiği için güncellenen
+ * ve içerik özeti aynı olduğu için hiç yazılmayan satır sayıları.
+ */
+public record MealUpsertResult(int inserted, int updated, int unchanged) {
+
+    public static final MealUpsertResult EMPTY = new MealUpsertResult(0, 0, 0);
+
+    public int rowsChanged() {
+        return inserted + updated;
+    }
+}
@@ -0,0 +1,58 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.entity.Meal;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Menü kayıtlarını yalnızca bir kez, veri alınırken doğrular. Sonuç meals tablosundaki
+ * valid / rejection_rule sütunlarına yazılır; okuma tarafı yalnızca geçerli satırları sorgular.
+ * Kurallar değişirse /admin_revalidate ile geçmiş kayıtlar toplu olarak yeniden doğrulanır.
+ */
+@Component
+public class MealValidator {
+
+    public static final String RULE_SPAM = "spam";
+    public static final String RULE_TOO_FEW_ITEMS = "too_few_items";
+
+    // API boş günler için tanıtım/iletişim metinleri döndürüyor
+    private static final Pattern SPAM_PATTERN = Pattern.compile(
+            "@|mail|gönderip|katkı sağla|uygulamaya|listesini|daha hızlı|girilmesine",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final int MIN_ITEM_LENGTH = 3;
+    private static final int MAX_ITEM_LENGTH = 100;
+    private static final int MIN_VALID_ITEMS = 3;
+
+    /**
+     * @return kaydı reddeden kural ("spam:&lt;eşleşen&gt;" ya da "too_few_items"), geçerliyse null
+     */
+    public String findRejectionRule(String first, String second, String third, String fourth) {
+        int validItemCount = 0;
+        for (String item : new String[]{first, second, third, fourth}) {
+            if (item == null) continue;
+            String trimmed = item.strip();
+            if (trimmed.isEmpty()) continue;
+
+            Matcher matcher = SPAM_PATTERN.matcher(trimmed);
+            if (matcher.find()) {
+                return RULE_SPAM + ":" + matcher.group();
+            }
+            if (trimmed.length() >= MIN_ITEM_LENGTH && trimmed.length() <= MAX_ITEM_LENGTH) {
+                validItemCount++;
+            }
+        }
+        return validItemCount >= MIN_VALID_ITEMS ? null : RULE_TOO_FEW_ITEMS;
+    }
+
+    /**
+     * Sonucu kaydın valid / rejectionRule alanlarına yazar.
+     */
+    public boolean validate(Meal meal) {
+        String rule = findRejectionRule(meal.getFirst(), meal.getSecond(), meal.getThird(), meal.getFourth());
+        meal.setValid(rule == null);
+        meal.setRejectionRule(rule);
+        return rule == null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.kyk.mealtracker.services;
+
+import java.util.Set;
+
+/**
+ * Menü satırları eklendiğinde, değiştiğinde ya da silindiğinde yayınlanır.
+ */
+public record MealsChangedEvent(Set<MealCache.Key> keys) {
+}
@@ -0,0 +1,166 @@
+package com.kyk.mealtracker.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyk.mealtracker.entity.Meal;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Menü listesini Jackson'ın token API'siyle tek geçişte okur. Tarihi [from, to] dışında kalan kayıtlar
+ * String ya da Meal oluşturulmadan atlanır; yalnızca aralıktaki kayıtlar Meal olarak sink'e verilir.
+ */
+@Component
+public class MenuListParser {
+
+    private final ObjectMapper objectMapper;
+
+    public MenuListParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return listede görülen kayıt sayısı (aralık dışında kalanlar dahil)
+     */
+    public int parse(byte[] body, LocalDate from, LocalDate to, Consumer<Meal> sink) {
+        if (body.length == 0) return 0;
+        char[] fromChars = from.toString().toCharArray();
+        char[] toChars = to.toString().toCharArray();
+        int entries = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) return 0;
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Menü listesi dizi değil: " + token);
+            }
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == JsonToken.VALUE_NULL) continue;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                entries++;
+                Meal meal = readEntry(parser, fromChars, toChars, from, to);
+                if (meal != null) sink.accept(meal);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Menü listesi çözümlenemedi", e);
+        }
+        return entries;
+    }
+
+    private Meal readEntry(JsonParser parser, char[] fromChars, char[] toChars, LocalDate from, LocalDate to)
+            throws IOException {
+        Meal meal = null;
+        boolean outOfWindow = false;
+        // Tarih alanı sonda gelirse önceki alanlar geçici olarak burada tutulur
+        String[] fields = null;
+        Integer mealType = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (outOfWindow || value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            if ("date".equals(name)) {
+                LocalDate date = readDate(parser, value, fromChars, toChars, from, to);
+                if (date == null) {
+                    outOfWindow = true;
+                    continue;
+                }
+                meal = Meal.builder().date(date).mealType(mealType).build();
+                if (fields != null) apply(meal, fields);
+                continue;
+            }
+            if ("mealType".equals(name)) {
+                mealType = value == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+                if (meal != null) meal.setMealType(mealType);
+                continue;
+            }
+            int index = fieldIndex(name);
+            if (index < 0) continue;
+            String text = parser.getValueAsString();
+            if (meal != null) {
+                set(meal, index, text);
+            } else {
+                if (fields == null) fields = new String[FIELD_COUNT];
+                fields[index] = text;
+            }
+        }
+        return outOfWindow ? null : meal;
+    }
+
+    /**
+     * ISO biçimli tarihleri karakter dizisi üzerinden karşılaştırır; aralık dışındaysa null döner.
+     */
+    private LocalDate readDate(JsonParser parser, JsonToken value, char[] fromChars, char[] toChars,
+                               LocalDate from, LocalDate to) throws IOException {
+        if (value == JsonToken.VALUE_NULL) return null;
+        if (value == JsonToken.VALUE_STRING && parser.getTextLength() >= 10) {
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            if (chars[offset + 4] == '-' && chars[offset + 7] == '-') {
+                if (compare(chars, offset, fromChars) < 0 || compare(chars, offset, toChars) > 0) {
+                    return null;
+                }
+            }
+        }
+        // Aralıktaki ya da farklı biçimli tarihler uygulamanın ObjectMapper ayarlarıyla çözülür
+        LocalDate date = objectMapper.readValue(parser, LocalDate.class);
+        if (date == null || date.isBefore(from) || date.isAfter(to)) return null;
+        return date;
+    }
+
+    private static int compare(char[] chars, int offset, char[] bound) {
+        for (int i = 0; i < bound.length; i++) {
+            int diff = chars[offset + i] - bound[i];
+            if (diff != 0) return diff;
+        }
+        return 0;
+    }
+
+    private static final int FIELD_COUNT = 9;
+
+    private static int fieldIndex(String name) {
+        return switch (name) {
+            case "first" -> 0;
+            case "firstCalories" -> 1;
+            case "second" -> 2;
+            case "secondCalories" -> 3;
+            case "third" -> 4;
+            case "thirdCalories" -> 5;
+            case "fourth" -> 6;
+            case "fourthCalories" -> 7;
+            case "totalCalories" -> 8;
+            default -> -1;
+        };
+    }
+
+    private static void apply(Meal meal, String[] fields) {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (fields[i] != null) set(meal, i, fields[i]);
+        }
+    }
+
+    private static void set(Meal meal, int index, String text) {
+        switch (index) {
+            case 0 -> meal.setFirst(text);
+            case 1 -> meal.setFirstCalories(text);
+            case 2 -> meal.setSecond(text);
+            case 3 -> meal.setSecondCalories(text);
+            case 4 -> meal.setThird(text);
+            case 5 -> meal.setThirdCalories(text);
+            case 6 -> meal.setFourth(text);
+            case 7 -> meal.setFourthCalories(text);
+            case 8 -> meal.setTotalCalories(text);
+            default -> throw new IllegalArgumentException("Bilinmeyen alan: " + index);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.kyk.mealtracker.services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Menü listesi adresi başına son başarılı senkronizasyonun doğrulayıcılarını (ETag, Last-Modified,
+ * gövde özeti) ve kaydedilen tarih aralığını tutar. Sonraki çekimler koşullu istek gönderir;
+ * 304 ya da aynı gövde gelirse liste çözümlenmez ve kaydedilmez.
+ */
+@Component
+public class MenuListValidators {
+
+    private final Map<String, Validators> byUrl = new ConcurrentHashMap<>();
+
+    /**
+     * Yalnızca kayıtlı aralık istenen aralığı kapsıyorsa döner; aksi halde eksik günler
+     * yazılmadan atlanabilirdi.
+     */
+    public Optional<Validators> find(String url, LocalDate from, LocalDate to) {
+        Validators validators = byUrl.get(url);
+        if (validators == null || validators.from().isAfter(from) || validators.to().isBefore(to)) {
+            return Optional.empty();
+        }
+        return Optional.of(validators);
+    }
+
+    public void put(String url, Validators validators) {
+        byUrl.put(url, validators);
+    }
+
+    /**
+     * Veritabanından menü silindiğinde çağrılır; sonraki senkronizasyon listeleri baştan indirir.
+     */
+    public void clear() {
+        byUrl.clear();
+    }
+
+    public record Validators(String etag, String lastModified, String bodyHash, LocalDate from, LocalDate to) {
+    }
+}
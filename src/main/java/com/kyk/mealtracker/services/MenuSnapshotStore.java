@@ -0,0 +1,175 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.repository.MealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Tüm şehirlerin önümüzdeki günlere ait menü ve bildirim mesajlarını önceden oluşturup
+ * değiştirilemez bir haritada tutar. Harita her yenilemede atomik olarak değiştirilir;
+ * komutlar ve bildirimler yalnızca hazır metni okur.
+ */
+@Component
+public class MenuSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshotStore.class);
+    private static final int MIN_CITY_ID = 1;
+    private static final int MAX_CITY_ID = 81;
+
+    public record RenderedDay(String menuMessage, String breakfastNotification, String dinnerNotification) {
+
+        Optional<String> notification(int mealType) {
+            return Optional.ofNullable(mealType == 0 ? breakfastNotification : dinnerNotification);
+        }
+
+        boolean isEmpty() {
+            return breakfastNotification == null && dinnerNotification == null;
+        }
+    }
+
+    private record Snapshot(LocalDate from, LocalDate to, Map<MealCache.Key, RenderedDay> days) {
+
+        static final Snapshot EMPTY = new Snapshot(LocalDate.MIN, LocalDate.MIN, Map.of());
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(from) && !date.isAfter(to);
+        }
+    }
+
+    private final MealRepository mealRepository;
+    private final MealService mealService;
+    private final MealMessageFormatter formatter;
+    private final CitySyncStatus citySyncStatus;
+    private final MealSyncEngine mealSyncEngine;
+    private final int days;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    public MenuSnapshotStore(MealRepository mealRepository, MealService mealService, MealMessageFormatter formatter,
+                             CitySyncStatus citySyncStatus, MealSyncEngine mealSyncEngine,
+                             @Value("${menu.snapshot.days:7}") int days) {
+        this.mealRepository = mealRepository;
+        this.mealService = mealService;
+        this.formatter = formatter;
+        this.citySyncStatus = citySyncStatus;
+        this.mealSyncEngine = mealSyncEngine;
+        this.days = Math.max(1, days);
+    }
+
+    /**
+     * Kayıtlı son menüyü döndürür. Şehrin verisi bayatsa son güncelleme zamanı, menü yokken kaynağa
+     * ulaşılamıyorsa bir uyarı eklenir. Bayat şehir için arka planda yenileme başlatılır; yanıt beklenmez.
+     */
+    public String getMenuMessage(int cityId, LocalDate date) {
+        RenderedDay day = lookup(cityId, date);
+        if (day == null) day = render(date, mealService.getMealsByDateAndCity(date, cityId));
+        if (day.isEmpty()) {
+            return citySyncStatus.isUpstreamAvailable()
+                    ? day.menuMessage()
+                    : day.menuMessage() + formatter.renderUpstreamUnavailableNote();
+        }
+        Optional<LocalDateTime> lastSync = citySyncStatus.getLastSuccessfulSync(cityId);
+        if (lastSync.isPresent() && citySyncStatus.isStale(cityId)) {
+            mealSyncEngine.refreshCityIfNeeded(cityId);
+            return day.menuMessage() + formatter.renderStaleNote(lastSync.get(), citySyncStatus.isUpstreamAvailable());
+        }
+        return day.menuMessage();
+    }
+
+    public Optional<String> getNotification(int cityId, LocalDate date, int mealType) {
+        RenderedDay day = lookup(cityId, date);
+        return day != null ? day.notification(mealType) : render(date, mealService.getMealsByDateAndCity(date, cityId)).notification(mealType);
+    }
+
+    private RenderedDay lookup(int cityId, LocalDate date) {
+        Snapshot snapshot = current.get();
+        return snapshot.covers(date) ? snapshot.days().get(new MealCache.Key(cityId, date)) : null;
+    }
+
+    /**
+     * Tüm pencereyi tek sorguyla yükleyip yeniden oluşturur.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "30 0 0 * * *")
+    public void rebuild() {
+        long start = System.nanoTime();
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(days - 1L);
+
+        Map<MealCache.Key, List<Meal>> mealsByKey = mealRepository.findByDateBetweenAndValidTrue(from, to).stream()
+                .filter(meal -> meal.getCityId() != null)
+                .collect(Collectors.groupingBy(meal -> new MealCache.Key(meal.getCityId(), meal.getDate())));
+
+        Map<MealCache.Key, RenderedDay> rendered = new HashMap<>();
+        for (int cityId = MIN_CITY_ID; cityId <= MAX_CITY_ID; cityId++) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                MealCache.Key key = new MealCache.Key(cityId, date);
+                rendered.put(key, render(date, mealsByKey.getOrDefault(key, List.of())));
+            }
+        }
+        current.set(new Snapshot(from, to, Map.copyOf(rendered)));
+        logger.info("Menü anlık görüntüsü oluşturuldu: {} kayıt, {} ms", rendered.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Yalnızca değişen (şehir, tarih) çiftlerini yeniden oluşturur ve yeni haritayı yerleştirir.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMealsChanged(MealsChangedEvent event) {
+        List<MealCache.Key> affected = new ArrayList<>();
+        Snapshot snapshot = current.get();
+        for (MealCache.Key key : event.keys()) {
+            if (snapshot.covers(key.date())) affected.add(key);
+        }
+        if (affected.isEmpty()) return;
+
+        Map<MealCache.Key, RenderedDay> updates = new HashMap<>();
+        for (MealCache.Key key : affected) {
+            updates.put(key, render(key.date(), mealRepository.findByDateAndCityIdAndValidTrue(key.date(), key.cityId())));
+        }
+        current.updateAndGet(existing -> {
+            Map<MealCache.Key, RenderedDay> merged = new HashMap<>(existing.days());
+            updates.forEach((key, day) -> {
+                if (existing.covers(key.date())) merged.put(key, day);
+            });
+            return new Snapshot(existing.from(), existing.to(), Map.copyOf(merged));
+        });
+        logger.debug("Menü anlık görüntüsünde {} kayıt güncellendi", updates.size());
+    }
+
+    int size() {
+        return current.get().days().size();
+    }
+
+    private RenderedDay render(LocalDate date, List<Meal> meals) {
+        return new RenderedDay(
+                formatter.renderDayMenu(date, meals),
+                renderNotification(0, date, meals),
+                renderNotification(1, date, meals));
+    }
+
+    private String renderNotification(int mealType, LocalDate date, List<Meal> meals) {
+        return meals.stream()
+                .filter(meal -> meal.getMealType() != null && meal.getMealType() == mealType)
+                .findFirst()
+                .map(meal -> formatter.renderNotification(mealType, date, meal))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.kyk.mealtracker.services;
+
+import java.util.Arrays;
+
+/**
+ * Dakika başına bir kova tutan kayan pencere sayacı. Kovalar dakika damgasıyla işaretlenir;
+ * pencereden çıkan kova ilk yazımda sıfırlanır, toplama sırasında ise yok sayılır.
+ * Thread-safe değildir, çağıran senkronize eder.
+ */
+final class MinuteBucketRing {
+
+    private final int size;
+    private final long[] minutes;
+    private final int[] counts;
+
+    MinuteBucketRing(int size) {
+        this.size = size;
+        this.minutes = new long[size];
+        this.counts = new int[size];
+        clear();
+    }
+
+    void add(long minute, int delta, long nowMinute) {
+        if (minute < 0 || nowMinute - minute >= size) return;
+        int index = (int) (minute % size);
+        if (minutes[index] != minute) {
+            // Kova başka bir dakikaya ait; eski dakikadan düşülecek bir şey kalmamıştır
+            if (delta < 0) return;
+            minutes[index] = minute;
+            counts[index] = 0;
+        }
+        counts[index] += delta;
+    }
+
+    long sum(long nowMinute) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            long minute = minutes[i];
+            if (minute >= 0 && nowMinute - minute < size) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+
+    void clear() {
+        Arrays.fill(minutes, -1);
+        Arrays.fill(counts, 0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.entity.Campaign;
+import com.kyk.mealtracker.repository.OutboxBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Günlük öğün bildirimlerini şehir bazında dağıtır.
+ * Her şehrin mesajı menü anlık görüntüsünden okunur ve o şehrin tüm alıcılarına aynen gönderilir.
+ * Gönderim kalıcı outbox üzerinden yapılır; aynı gün aynı öğün için ikinci bir kampanya açılmaz.
+ */
+@Service
+public class NotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    private static final int DEFAULT_CITY_ID = 1;
+
+    private final MenuSnapshotStore menuSnapshotStore;
+    private final OutboxService outboxService;
+
+    public NotificationService(MenuSnapshotStore menuSnapshotStore, OutboxService outboxService) {
+        this.menuSnapshotStore = menuSnapshotStore;
+        this.outboxService = outboxService;
+        outboxService.registerRenderer(Campaign.Type.MEAL_NOTIFICATION, this::renderCityNotification);
+    }
+
+    public Campaign sendMealNotifications(int mealType) {
+        LocalDate today = LocalDate.now();
+
+        Campaign campaign = Campaign.builder()
+                .campaignKey("meal-" + mealType + "-" + today)
+                .type(Campaign.Type.MEAL_NOTIFICATION)
+                .mealType(mealType)
+                .mealDate(today)
+                .build();
+        logger.info("{} bildirimi başlatılıyor", mealType == 0 ? "Kahvaltı" : "Akşam yemeği");
+        return outboxService.start(campaign, OutboxBatchRepository.Audience.NOTIFICATION_SUBSCRIBERS, null);
+    }
+
+    private Optional<String> renderCityNotification(Campaign campaign, Integer cityId) {
+        int resolvedCityId = cityId != null ? cityId : DEFAULT_CITY_ID;
+        Optional<String> text = menuSnapshotStore.getNotification(resolvedCityId, campaign.getMealDate(), campaign.getMealType());
+        if (text.isEmpty()) {
+            logger.info("Bugün için geçerli menü bulunamadı: {}, şehir: {}", campaign.getMealDate(), resolvedCityId);
+        }
+        return text;
+    }
+}
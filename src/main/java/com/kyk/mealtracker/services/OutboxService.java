@@ -0,0 +1,289 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.bot.DeliveryStatus;
+import com.kyk.mealtracker.bot.OutboundDispatcher;
+import com.kyk.mealtracker.entity.Campaign;
+import com.kyk.mealtracker.entity.OutboxMessage;
+import com.kyk.mealtracker.repository.CampaignRepository;
+import com.kyk.mealtracker.repository.OutboxBatchRepository;
+import com.kyk.mealtracker.repository.OutboxMessageRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kalıcı bildirim kuyruğu (outbox). Kampanya başlarken her alıcı için bir satır yazılır,
+ * satırlar işçiler tarafından gönderilerek tüketilir. Uygulama yeniden başladığında
+ * yarım kalan kampanyalar kaldığı yerden devam eder.
+ *
+ * Satır gönderimden hemen önce PENDING -> SENDING olarak işaretlenir; yeniden başlatmada yalnızca
+ * PENDING satırlar gönderilir, böylece bir kullanıcı aynı kampanyayı iki kez almaz (en fazla bir kez teslimat).
+ * Gönderim sırasında süreç durursa satır SENDING'de kalır; kampanya tamamlanırken bu satırlar UNKNOWN
+ * olarak kapatılır ve sayıları /admin_stats'ta gösterilir.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    /**
+     * Kampanyada sabit metin yoksa şehir bazında metni üretir. Boş dönerse o şehrin alıcıları atlanır.
+     */
+    public interface TextRenderer {
+        Optional<String> render(Campaign campaign, Integer cityId);
+    }
+
+    public interface DeliveryListener {
+        default void onTotal(long total) {}
+
+        default void onDelivery(DeliveryStatus status) {}
+
+        default void onFinished() {}
+    }
+
+    private static final DeliveryListener NO_OP_LISTENER = new DeliveryListener() {};
+
+    private final CampaignRepository campaignRepository;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final OutboxBatchRepository outboxBatchRepository;
+    private final OutboundDispatcher outboundDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final int maxInFlight;
+    private final Map<Campaign.Type, TextRenderer> renderers = new ConcurrentHashMap<>();
+    private final Set<Long> draining = ConcurrentHashMap.newKeySet();
+    private final ExecutorService drainers;
+
+    public OutboxService(CampaignRepository campaignRepository,
+                         OutboxMessageRepository outboxMessageRepository,
+                         OutboxBatchRepository outboxBatchRepository,
+                         OutboundDispatcher outboundDispatcher,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${notification.outbox.page-size:500}") int pageSize,
+                         @Value("${notification.outbox.max-in-flight:1000}") int maxInFlight) {
+        this.campaignRepository = campaignRepository;
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.outboxBatchRepository = outboxBatchRepository;
+        this.outboundDispatcher = outboundDispatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = Math.max(1, pageSize);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.drainers = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "outbox-drainer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void registerRenderer(Campaign.Type type, TextRenderer renderer) {
+        renderers.put(type, renderer);
+    }
+
+    /**
+     * Kampanyayı oluşturur, alıcıları kullanıcı tablosundan aynı işlemde doğrudan veritabanında kopyalar ve
+     * işlem tamamlandıktan sonra gönderimi başlatır; uygulama belleğine alıcı listesi yüklenmez.
+     * Aynı anahtarla daha önce oluşturulmuş bir kampanya varsa yeni satır eklenmez, mevcut kampanya devam ettirilir.
+     */
+    public Campaign start(Campaign campaign, OutboxBatchRepository.Audience audience, DeliveryListener listener) {
+        Optional<Campaign> existing = campaignRepository.findByCampaignKey(campaign.getCampaignKey());
+        if (existing.isPresent()) {
+            logger.info("Kampanya zaten mevcut, devam ettiriliyor: {}", campaign.getCampaignKey());
+            resume(existing.get(), listener);
+            return existing.get();
+        }
+
+        campaign.setStatus(Campaign.Status.RUNNING);
+        campaign.setCreatedAt(LocalDateTime.now());
+        Campaign saved;
+        try {
+            // Kampanya ve alıcı satırları birlikte yazılır; alıcılar eklenemezse RUNNING ama boş bir kampanya kalmaz
+            saved = transactionTemplate.execute(status -> {
+                Campaign created = campaignRepository.save(campaign);
+                int recipients = outboxBatchRepository.insertPending(created.getId(), audience);
+                logger.info("Kampanya #{} ({}) başlatıldı, {} alıcı", created.getId(), created.getCampaignKey(), recipients);
+                return created;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Aynı anahtarla eşzamanlı başlatma
+            Campaign concurrent = campaignRepository.findByCampaignKey(campaign.getCampaignKey()).orElseThrow();
+            resume(concurrent, listener);
+            return concurrent;
+        }
+
+        drainAsync(saved, listener);
+        return saved;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (Campaign campaign : campaignRepository.findByStatus(Campaign.Status.RUNNING)) {
+            long inFlight = outboxMessageRepository.countByCampaignIdAndStatus(campaign.getId(), OutboxMessage.Status.SENDING);
+            logger.info("Yarım kalan kampanya #{} ({}) devam ettiriliyor. Gönderimi belirsiz kalan: {}",
+                    campaign.getId(), campaign.getCampaignKey(), inFlight);
+            drainAsync(campaign, NO_OP_LISTENER);
+        }
+    }
+
+    /**
+     * Süreç yarıda kesildiği için teslimi doğrulanamayan gönderimler (tüm kampanyalar).
+     */
+    public long getUncertainDeliveryCount() {
+        return outboxMessageRepository.countByStatus(OutboxMessage.Status.UNKNOWN);
+    }
+
+    private void resume(Campaign campaign, DeliveryListener listener) {
+        if (campaign.getStatus() == Campaign.Status.DONE) {
+            (listener != null ? listener : NO_OP_LISTENER).onFinished();
+            return;
+        }
+        drainAsync(campaign, listener);
+    }
+
+    private void drainAsync(Campaign campaign, DeliveryListener listener) {
+        DeliveryListener target = listener != null ? listener : NO_OP_LISTENER;
+        if (!draining.add(campaign.getId())) {
+            // Aynı kampanya zaten bu süreçte tüketiliyor
+            target.onFinished();
+            return;
+        }
+        drainers.execute(() -> {
+            try {
+                drain(campaign, target);
+            } catch (Exception e) {
+                logger.error("Kampanya #" + campaign.getId() + " gönderimi yarıda kaldı", e);
+            } finally {
+                draining.remove(campaign.getId());
+                target.onFinished();
+            }
+        });
+    }
+
+    private void drain(Campaign campaign, DeliveryListener listener) throws InterruptedException {
+        Long campaignId = campaign.getId();
+        listener.onTotal(outboxMessageRepository.countByCampaignIdAndStatus(campaignId, OutboxMessage.Status.PENDING));
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Map<Integer, Optional<String>> textByCity = new HashMap<>();
+        long lastId = 0;
+        while (true) {
+            List<OutboxMessage> page = outboxMessageRepository.findByCampaignIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                    campaignId, OutboxMessage.Status.PENDING, lastId, Limit.of(pageSize));
+            if (page.isEmpty()) break;
+
+            for (OutboxMessage row : page) {
+                lastId = row.getId();
+                PartialBotApiMethod<?> method = buildMessage(campaign, row, textByCity);
+                if (method == null) {
+                    outboxMessageRepository.transition(row.getId(), OutboxMessage.Status.PENDING,
+                            OutboxMessage.Status.SKIPPED, LocalDateTime.now());
+                    listener.onDelivery(DeliveryStatus.SKIPPED);
+                    continue;
+                }
+
+                inFlight.acquire();
+                Long rowId = row.getId();
+                outboundDispatcher.submit(row.getChatId(), method, () -> outboxMessageRepository.transition(
+                                rowId, OutboxMessage.Status.PENDING, OutboxMessage.Status.SENDING, LocalDateTime.now()) == 1)
+                        .whenComplete((status, error) -> {
+                            try {
+                                DeliveryStatus result = status != null ? status : DeliveryStatus.FAILED;
+                                if (result != DeliveryStatus.SKIPPED) {
+                                    outboxMessageRepository.transition(rowId, OutboxMessage.Status.SENDING,
+                                            toOutboxStatus(result), LocalDateTime.now());
+                                }
+                                listener.onDelivery(result);
+                            } catch (Exception e) {
+                                logger.error("Outbox satırı güncellenemedi - id: " + rowId, e);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+            }
+        }
+
+        // Yoldaki tüm gönderimlerin bitmesini bekle
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        // Bu süreçte gönderilen satırlar kapandı; hâlâ SENDING olanlar önceki bir çalışmada yarıda kalmıştır
+        int uncertain = outboxMessageRepository.transitionAll(campaignId, OutboxMessage.Status.SENDING,
+                OutboxMessage.Status.UNKNOWN, LocalDateTime.now());
+        if (uncertain > 0) {
+            logger.warn("Kampanya #{} için {} gönderimin teslim edilip edilmediği bilinmiyor, tekrar gönderilmeyecek",
+                    campaignId, uncertain);
+        }
+
+        campaign.setStatus(Campaign.Status.DONE);
+        campaign.setFinishedAt(LocalDateTime.now());
+        campaignRepository.save(campaign);
+        logger.info("Kampanya #{} ({}) tamamlandı - gönderilen: {}, hatalı: {}, ulaşılamayan: {}, atlanan: {}, belirsiz: {}",
+                campaignId, campaign.getCampaignKey(),
+                outboxMessageRepository.countByCampaignIdAndStatus(campaignId, OutboxMessage.Status.SENT),
+                outboxMessageRepository.countByCampaignIdAndStatus(campaignId, OutboxMessage.Status.FAILED),
+                outboxMessageRepository.countByCampaignIdAndStatus(campaignId, OutboxMessage.Status.BLOCKED),
+                outboxMessageRepository.countByCampaignIdAndStatus(campaignId, OutboxMessage.Status.SKIPPED),
+                uncertain);
+    }
+
+    private static OutboxMessage.Status toOutboxStatus(DeliveryStatus status) {
+        return switch (status) {
+            case SENT -> OutboxMessage.Status.SENT;
+            case BLOCKED -> OutboxMessage.Status.BLOCKED;
+            case SKIPPED -> OutboxMessage.Status.SKIPPED;
+            case FAILED -> OutboxMessage.Status.FAILED;
+        };
+    }
+
+    private PartialBotApiMethod<?> buildMessage(Campaign campaign, OutboxMessage row, Map<Integer, Optional<String>> textByCity) {
+        String text = campaign.getText();
+        if (text == null) {
+            TextRenderer renderer = renderers.get(campaign.getType());
+            if (renderer == null) return null;
+            // Şehir başına bir kez üretilir
+            text = textByCity.computeIfAbsent(row.getCityId(), cityId -> renderer.render(campaign, cityId)).orElse(null);
+            if (text == null) return null;
+        }
+
+        if (campaign.getPhotoFileId() != null) {
+            SendPhoto sendPhoto = new SendPhoto();
+            sendPhoto.setChatId(row.getChatId());
+            sendPhoto.setPhoto(new InputFile(campaign.getPhotoFileId()));
+            sendPhoto.setCaption(text);
+            return sendPhoto;
+        }
+        return SendMessage.builder()
+                .chatId(row.getChatId())
+                .text(text)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainers.shutdownNow();
+    }
+}
@@ -0,0 +1,69 @@
+package com.kyk.mealtracker.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bir senkronizasyon çalışmasının şehir bazlı sonuçlarını toplar.
+ */
+public class SyncSummary {
+
+    private final List<CitySyncResult> results = new ArrayList<>();
+
+    public void add(CitySyncResult result) {
+        results.add(result);
+    }
+
+    public List<CitySyncResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    public long count(CitySyncResult.Status status) {
+        return results.stream().filter(r -> r.status() == status).count();
+    }
+
+    public int getRowsChanged() {
+        return results.stream().mapToInt(CitySyncResult::rowsChanged).sum();
+    }
+
+    public int getInserted() {
+        return results.stream().mapToInt(CitySyncResult::inserted).sum();
+    }
+
+    public int getUpdated() {
+        return results.stream().mapToInt(CitySyncResult::updated).sum();
+    }
+
+    public int getUnchanged() {
+        return results.stream().mapToInt(CitySyncResult::unchanged).sum();
+    }
+
+    public int getHttpCalls() {
+        return results.stream().mapToInt(CitySyncResult::httpCalls).sum();
+    }
+
+    public long getBytesDownloaded() {
+        return results.stream().mapToLong(CitySyncResult::bytesDownloaded).sum();
+    }
+
+    public int getHttpCallsSaved() {
+        return results.stream().mapToInt(CitySyncResult::httpCallsSaved).sum();
+    }
+
+    public long getBytesSaved() {
+        return results.stream().mapToLong(CitySyncResult::bytesSaved).sum();
+    }
+
+    public int getListsNotModified() {
+        return results.stream().mapToInt(CitySyncResult::listsNotModified).sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("şehir=%d (başarılı=%d, hatalı=%d, atlanan=%d), eklenen=%d, güncellenen=%d, değişmeyen=%d, istek=%d (%d byte), değişmeyen liste=%d, tasarruf=%d istek / %d byte",
+                results.size(), count(CitySyncResult.Status.OK), count(CitySyncResult.Status.FAILED),
+                count(CitySyncResult.Status.SKIPPED), getInserted(), getUpdated(), getUnchanged(), getHttpCalls(), getBytesDownloaded(),
+                getListsNotModified(), getHttpCallsSaved(), getBytesSaved());
+    }
+}
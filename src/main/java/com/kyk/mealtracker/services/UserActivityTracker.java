@@ -0,0 +1,155 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.bot.ChatUnreachableEvent;
+import com.kyk.mealtracker.entity.BotUser;
+import com.kyk.mealtracker.repository.BotUserBatchRepository;
+import com.kyk.mealtracker.repository.BotUserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Her mesajda kullanıcı kaydını veritabanına yazmak yerine etkinlik zamanlarını bellekte biriktirir
+ * ve birkaç saniyede bir toplu olarak yazar. Yeni kullanıcılar ve profil değişiklikleri hemen kaydedilir.
+ */
+@Service
+public class UserActivityTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserActivityTracker.class);
+    private static final int DEFAULT_CITY_ID = 1;
+
+    private final BotUserRepository botUserRepository;
+    private final BotUserBatchRepository botUserBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BotStatsService botStatsService;
+    private final ConcurrentHashMap<Long, LocalDateTime> pendingActivity = new ConcurrentHashMap<>();
+    // ChatId -> profil özeti ve şehir; yalnızca son kullanılan kayıtlar tutulur
+    private final Map<Long, KnownUser> knownUsers;
+
+    private record KnownUser(int profileHash, int cityId) {
+    }
+
+    public UserActivityTracker(BotUserRepository botUserRepository,
+                               BotUserBatchRepository botUserBatchRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               BotStatsService botStatsService,
+                               @Value("${user.activity.known-user-cache-size:100000}") int knownUserCacheSize) {
+        this.botUserRepository = botUserRepository;
+        this.botUserBatchRepository = botUserBatchRepository;
+        this.eventPublisher = eventPublisher;
+        this.botStatsService = botStatsService;
+        this.knownUsers = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, KnownUser> eldest) {
+                return size() > knownUserCacheSize;
+            }
+        });
+    }
+
+    public void recordActivity(Long chatId, User user) {
+        int profileHash = Objects.hash(user.getUserName(), user.getFirstName(), user.getLastName());
+        botStatsService.recordActivity(chatId);
+        KnownUser known = knownUsers.get(chatId);
+        if (known != null && known.profileHash() == profileHash) {
+            // Bilinen kullanıcı, profil değişmemiş: sadece zaman damgası biriktirilir
+            pendingActivity.put(chatId, LocalDateTime.now());
+            return;
+        }
+
+        BotUser botUser = botUserRepository.findById(chatId).orElse(null);
+        boolean isNew = botUser == null;
+        if (isNew) {
+            botUser = new BotUser();
+            botUser.setChatId(chatId);
+            botUser.setNotificationsEnabled(true);
+            botUser.setIsAdmin(false);
+            botUser.setCityId(DEFAULT_CITY_ID);
+            botUser.setRegisteredAt(LocalDateTime.now());
+        } else if (botUser.getBlockedAt() != null) {
+            botStatsService.onReachabilityChanged(true);
+        }
+        botUser.setUsername(user.getUserName());
+        botUser.setFirstName(user.getFirstName());
+        botUser.setLastName(user.getLastName());
+        botUser.setLastInteractionDate(LocalDateTime.now());
+        botUser.setLastActivityDate(LocalDateTime.now());
+        // Tekrar yazan kullanıcı artık ulaşılabilir
+        botUser.setBlockedAt(null);
+        botUser.setBlockedReason(null);
+        botUserRepository.save(botUser);
+        if (isNew) {
+            eventPublisher.publishEvent(new UserRegisteredEvent(chatId));
+        }
+
+        pendingActivity.remove(chatId);
+        knownUsers.put(chatId, new KnownUser(profileHash, cityIdOf(botUser)));
+    }
+
+    /**
+     * Kullanıcının şehrini önce bellekten, yoksa veritabanından okur.
+     */
+    public int getCityId(Long chatId) {
+        KnownUser known = knownUsers.get(chatId);
+        if (known != null) return known.cityId();
+        return botUserRepository.findById(chatId).map(UserActivityTracker::cityIdOf).orElse(DEFAULT_CITY_ID);
+    }
+
+    public void updateCity(Long chatId, int cityId) {
+        knownUsers.computeIfPresent(chatId, (id, known) -> new KnownUser(known.profileHash(), cityId));
+    }
+
+    /**
+     * Ulaşılamaz işaretlenen kullanıcı önbellekten çıkarılır; tekrar yazdığında kayıt veritabanından okunur,
+     * engeli kaldırılır ve istatistiklere bildirilir. Engelden önce biriken etkinlik engeli silmesin diye atılır.
+     */
+    @EventListener
+    public void onChatUnreachable(ChatUnreachableEvent event) {
+        knownUsers.remove(event.chatId());
+        pendingActivity.remove(event.chatId());
+    }
+
+    private static int cityIdOf(BotUser botUser) {
+        return botUser.getCityId() != null ? botUser.getCityId() : DEFAULT_CITY_ID;
+    }
+
+    @Scheduled(fixedDelayString = "${user.activity.flush-interval-ms:5000}")
+    public void flush() {
+        if (pendingActivity.isEmpty()) return;
+
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long chatId : pendingActivity.keySet()) {
+            LocalDateTime seenAt = pendingActivity.remove(chatId);
+            if (seenAt != null) {
+                batch.put(chatId, seenAt);
+            }
+        }
+
+        try {
+            botUserBatchRepository.updateActivity(batch);
+            logger.debug("{} kullanıcının etkinlik bilgisi yazıldı", batch.size());
+        } catch (Exception e) {
+            logger.error("Kullanıcı etkinlikleri yazılamadı, bir sonraki turda tekrar denenecek", e);
+            // Daha yeni bir kayıt gelmediyse geri koy
+            batch.forEach(pendingActivity::putIfAbsent);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,38 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.bot.ChatUnreachableEvent;
+import com.kyk.mealtracker.repository.BotUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kalıcı teslimat hatası alan sohbetleri ulaşılamaz olarak işaretler;
+ * bu kullanıcılar tekrar yazana kadar bildirim ve duyurulara dahil edilmez.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserReachabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserReachabilityService.class);
+    private static final int MAX_REASON_LENGTH = 255;
+
+    private final BotUserRepository botUserRepository;
+    private final BotStatsService botStatsService;
+
+    @EventListener
+    public void onChatUnreachable(ChatUnreachableEvent event) {
+        String reason = event.reason();
+        if (reason != null && reason.length() > MAX_REASON_LENGTH) {
+            reason = reason.substring(0, MAX_REASON_LENGTH);
+        }
+        if (botUserRepository.markUnreachable(event.chatId(), reason, LocalDateTime.now()) > 0) {
+            botStatsService.onReachabilityChanged(false);
+            logger.info("Kullanıcı ulaşılamaz olarak işaretlendi - ChatId: {}, Sebep: {}", event.chatId(), reason);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.kyk.mealtracker.services;
+
+/**
+ * Bot ile ilk kez konuşan kullanıcı veritabanına kaydedildiğinde yayınlanır.
+ */
+public record UserRegisteredEvent(Long chatId) {
+}
@@ -0,0 +1,71 @@
+-- Şema daha önce ddl-auto=update ile oluşturuluyordu. Bu betik mevcut veritabanlarında
+-- hiçbir şeyi bozmadan çalışır (IF NOT EXISTS), boş veritabanında ise şemayı sıfırdan kurar.
+
+CREATE TABLE IF NOT EXISTS bot_users (
+    chat_id                bigint       NOT NULL PRIMARY KEY,
+    username               varchar(255),
+    notifications_enabled  boolean      NOT NULL,
+    last_interaction_date  timestamp(6),
+    first_name             varchar(255),
+    last_name              varchar(255),
+    is_admin               boolean      NOT NULL,
+    last_activity_date     timestamp(6),
+    city_id                integer,
+    blocked_at             timestamp(6),
+    blocked_reason         varchar(255)
+);
+
+ALTER TABLE bot_users ADD COLUMN IF NOT EXISTS city_id integer;
+ALTER TABLE bot_users ADD COLUMN IF NOT EXISTS blocked_at timestamp(6);
+ALTER TABLE bot_users ADD COLUMN IF NOT EXISTS blocked_reason varchar(255);
+
+CREATE TABLE IF NOT EXISTS meals (
+    id               bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date             date         NOT NULL,
+    meal_type        integer,
+    city_id          integer,
+    first            varchar(255),
+    first_calories   varchar(255),
+    second           varchar(255),
+    second_calories  varchar(255),
+    third            varchar(255),
+    third_calories   varchar(255),
+    fourth           varchar(255),
+    fourth_calories  varchar(255),
+    total_calories   varchar(255),
+    content_hash     varchar(64),
+    valid            boolean      DEFAULT TRUE NOT NULL,
+    rejection_rule   varchar(64)
+);
+
+ALTER TABLE meals ADD COLUMN IF NOT EXISTS content_hash varchar(64);
+ALTER TABLE meals ADD COLUMN IF NOT EXISTS valid boolean DEFAULT TRUE NOT NULL;
+ALTER TABLE meals ADD COLUMN IF NOT EXISTS rejection_rule varchar(64);
+
+CREATE TABLE IF NOT EXISTS campaigns (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    campaign_key   varchar(255)  NOT NULL,
+    type           varchar(32)   NOT NULL,
+    status         varchar(16)   NOT NULL,
+    meal_type      integer,
+    meal_date      date,
+    text           varchar(4096),
+    photo_file_id  varchar(255),
+    requested_by   bigint,
+    created_at     timestamp(6)  NOT NULL,
+    finished_at    timestamp(6)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_campaigns_campaign_key ON campaigns (campaign_key);
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    campaign_id  bigint       NOT NULL,
+    chat_id      bigint       NOT NULL,
+    city_id      integer,
+    status       varchar(16)  NOT NULL,
+    updated_at   timestamp(6)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_outbox_campaign_chat ON notification_outbox (campaign_id, chat_id);
+CREATE INDEX IF NOT EXISTS idx_outbox_campaign_status ON notification_outbox (campaign_id, status, id);
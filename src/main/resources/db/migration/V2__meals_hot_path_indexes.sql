@@ -0,0 +1,16 @@
+-- Eski kurulumlarda aynı (şehir, tarih, öğün) için birden fazla satır kalmış olabilir;
+-- benzersiz indeks oluşturulmadan önce en yeni satır dışındakiler silinir.
+DELETE FROM meals m
+WHERE EXISTS (
+    SELECT 1 FROM meals d
+    WHERE d.city_id = m.city_id
+      AND d.date = m.date
+      AND d.meal_type = m.meal_type
+      AND d.id > m.id
+);
+
+-- Upsert (ON CONFLICT) hedefi ve (city_id, date) okumaları için
+CREATE UNIQUE INDEX IF NOT EXISTS uk_meals_city_date_type ON meals (city_id, date, meal_type);
+
+-- Tüm şehirler için tarih aralığı okumaları (menü anlık görüntüsü) ve /admin_delete_meal için
+CREATE INDEX IF NOT EXISTS idx_meals_date ON meals (date);
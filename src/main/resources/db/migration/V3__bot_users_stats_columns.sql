@@ -0,0 +1,6 @@
+-- Son 24 saatteki yeni kayıtlar artık gerçek kayıt anından hesaplanır
+ALTER TABLE bot_users ADD COLUMN IF NOT EXISTS registered_at timestamp(6);
+
+-- İstatistik eşitlemesi yalnızca son 24 saatin satırlarını okur
+CREATE INDEX IF NOT EXISTS idx_bot_users_last_activity ON bot_users (last_activity_date);
+CREATE INDEX IF NOT EXISTS idx_bot_users_registered_at ON bot_users (registered_at);
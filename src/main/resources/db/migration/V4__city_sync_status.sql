@@ -0,0 +1,5 @@
+-- Şehir başına son başarılı senkronizasyon; kaynak çöktüğünde gösterilen menünün ne kadar eski olduğu buradan okunur
+CREATE TABLE IF NOT EXISTS city_sync_status (
+    city_id               integer      NOT NULL PRIMARY KEY,
+    last_successful_sync  timestamp(6) NOT NULL
+);
@@ -0,0 +1,48 @@
+package com.kyk.mealtracker.bot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRateLimiterTest {
+
+    @Test
+    void allowsBurstThenDropsAndCounts() {
+        ChatRateLimiter limiter = new ChatRateLimiter(3, 0.001, 1_000);
+
+        assertThat(limiter.tryAcquire(7L)).isTrue();
+        assertThat(limiter.tryAcquire(7L)).isTrue();
+        assertThat(limiter.tryAcquire(7L)).isTrue();
+        assertThat(limiter.tryAcquire(7L)).isFalse();
+        assertThat(limiter.tryAcquire(8L)).isTrue();
+
+        assertThat(limiter.getAllowedCount()).isEqualTo(4);
+        assertThat(limiter.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void memoryStaysBoundedUnderMillionsOfDistinctChats() {
+        ChatRateLimiter limiter = new ChatRateLimiter(3, 0.34, 10_000);
+
+        for (long chatId = 1; chatId <= 2_000_000; chatId++) {
+            limiter.tryAcquire(chatId);
+        }
+
+        assertThat(limiter.getTrackedChats()).isLessThanOrEqualTo(10_000);
+        assertThat(limiter.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void idleChatsExpire() throws Exception {
+        // 1 token, saniyede 1000 token: 1 ms boşta kalan kova dolmuş sayılır
+        ChatRateLimiter limiter = new ChatRateLimiter(1, 1_000, 1_000);
+        for (long chatId = 1; chatId <= 500; chatId++) {
+            limiter.tryAcquire(chatId);
+        }
+        Thread.sleep(20);
+
+        limiter.evictExpired();
+
+        assertThat(limiter.getTrackedChats()).isZero();
+    }
+}
@@ -0,0 +1,153 @@
+package com.kyk.mealtracker.bot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpdateDispatcherTest {
+
+    private static final int UPDATES = 3_000;
+    private static final int CHATS = 300;
+
+    private UpdateDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) dispatcher.shutdown();
+    }
+
+    @Test
+    void keepsPerChatOrderWhileProcessingChatsInParallel() throws Exception {
+        dispatcher = new UpdateDispatcher(8, 10_000);
+        List<Update> updates = syntheticUpdates();
+        Map<Long, List<Integer>> seenByChat = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(updates.size());
+
+        for (Update update : updates) {
+            dispatcher.dispatch(UpdateDispatcher.chatIdOf(update), () -> {
+                seenByChat.computeIfAbsent(update.getMessage().getChatId(), k -> new CopyOnWriteArrayList<>())
+                        .add(update.getMessage().getMessageId());
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(seenByChat).hasSize(CHATS);
+        seenByChat.values().forEach(ids -> assertThat(ids).isSorted());
+    }
+
+    @Test
+    void dropsUpdatesWhenTheLaneIsFullInsteadOfBlockingThePoller() throws Exception {
+        dispatcher = new UpdateDispatcher(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        dispatcher.dispatch(1L, () -> awaitQuietly(release));
+        Thread.sleep(50);
+        assertThat(dispatcher.dispatch(1L, () -> {})).isTrue();
+        assertThat(dispatcher.dispatch(1L, () -> {})).isFalse();
+        assertThat(dispatcher.dispatch(2L, () -> {})).isFalse();
+        assertThat(dispatcher.getRejectedCount()).isEqualTo(2);
+        assertThat(dispatcher.getRejectedCount(1L)).isEqualTo(1);
+        assertThat(dispatcher.getRejectedCount(2L)).isEqualTo(1);
+        assertThat(dispatcher.getRejectedCount(3L)).isZero();
+        release.countDown();
+    }
+
+    /**
+     * Ara sıra yavaşlayan bir işleyiciyle (örn. veritabanı ya da Telegram gecikmesi) binlerce update'i
+     * tek thread'de sırayla ve dispatcher üzerinden işler, alınıştan bitişe kadar geçen sürenin p99'unu karşılaştırır. Yalnızca mvn -Pperf test ile çalışır.
+     */
+    @Test
+    @Tag("perf")
+    void reportsTailLatencyUnderLoad() throws Exception {
+        List<Update> updates = syntheticUpdates();
+
+        long[] inline = new long[updates.size()];
+        for (int i = 0; i < updates.size(); i++) {
+            long received = System.nanoTime();
+            simulatedHandler().accept(updates.get(i));
+            inline[i] = System.nanoTime() - received;
+        }
+        // Sırayla işlemede her update önündeki tüm işleri de bekler
+        for (int i = 1; i < inline.length; i++) inline[i] += inline[i - 1];
+
+        dispatcher = new UpdateDispatcher(16, 10_000);
+        long[] dispatched = new long[updates.size()];
+        CountDownLatch done = new CountDownLatch(updates.size());
+        long start = System.nanoTime();
+        for (int i = 0; i < updates.size(); i++) {
+            int index = i;
+            Update update = updates.get(i);
+            long received = System.nanoTime();
+            dispatcher.dispatch(UpdateDispatcher.chatIdOf(update), () -> {
+                simulatedHandler().accept(update);
+                dispatched[index] = System.nanoTime() - received;
+                done.countDown();
+            });
+        }
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        double dispatchedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long inlineP99 = percentile(inline, 0.99);
+        long dispatchedP99 = percentile(dispatched, 0.99);
+        System.out.printf("Update p99: sıralı %.1f ms, dispatcher %.1f ms (%d update %.2f sn)%n",
+                inlineP99 / 1e6, dispatchedP99 / 1e6, updates.size(), dispatchedSeconds);
+        assertThat(dispatchedP99).isLessThan(inlineP99);
+    }
+
+    private static Consumer<Update> simulatedHandler() {
+        return update -> {
+            // Her 100 update'ten biri 20 ms, geri kalanı 0,5 ms sürer
+            long millis = update.getMessage().getMessageId() % 100 == 0 ? 20 : 0;
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(millis) + 500_000);
+        };
+    }
+
+    private static List<Update> syntheticUpdates() {
+        List<Update> updates = new ArrayList<>(UPDATES);
+        for (int i = 1; i <= UPDATES; i++) {
+            Chat chat = new Chat();
+            chat.setId((long) (i % CHATS) + 1);
+            chat.setType("private");
+            Message message = new Message();
+            message.setMessageId(i);
+            message.setChat(chat);
+            message.setText("/bugun");
+            Update update = new Update();
+            update.setUpdateId(i);
+            update.setMessage(message);
+            updates.add(update);
+        }
+        return updates;
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
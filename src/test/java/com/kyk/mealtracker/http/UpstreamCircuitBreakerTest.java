@@ -0,0 +1,156 @@
+package com.kyk.mealtracker.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamCircuitBreakerTest {
+
+    private enum Fault {
+        NONE,
+        SERVER_ERROR,
+        HANG
+    }
+
+    private static final String HOST = "127.0.0.1";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile Fault fault = Fault.NONE;
+    private HttpServer server;
+    private UpstreamCircuitBreaker circuitBreaker;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(HOST, 0), 0);
+        server.createContext("/yurt-tunnel/menu/liste", exchange -> {
+            requests.incrementAndGet();
+            switch (fault) {
+                case SERVER_ERROR -> {
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                }
+                case HANG -> {
+                    await(release);
+                    exchange.close();
+                }
+                default -> {
+                    byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        circuitBreaker = new UpstreamCircuitBreaker(3, 200, 500, nanos::get);
+        restTemplate = restTemplate(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndStopsCallingTheHost() {
+        fault = Fault.SERVER_ERROR;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(this::fetch).isInstanceOf(HttpServerErrorException.class);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(this::fetch).isInstanceOf(CircuitOpenException.class);
+        }
+        assertThat(requests).hasValue(3);
+        assertThat(circuitBreaker.getOpenHosts()).containsExactly(HOST);
+    }
+
+    @Test
+    void timeoutsCountAsFailures() {
+        // Sunucu yanıtı bekletir; yalnızca bu test kısa okuma zaman aşımı kullanır
+        restTemplate = restTemplate(Duration.ofMillis(150));
+        fault = Fault.HANG;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(this::fetch).isInstanceOf(ResourceAccessException.class)
+                    .isNotInstanceOf(CircuitOpenException.class);
+        }
+        assertThat(circuitBreaker.getState(HOST)).isEqualTo(UpstreamCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void failedProbeDoublesTheBackOffAndSuccessfulProbeCloses() {
+        fault = Fault.SERVER_ERROR;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(this::fetch).isInstanceOf(HttpServerErrorException.class);
+        }
+
+        // 200 ms sonra tek deneme isteği geçer ve yine başarısız olur: devre 400 ms açık kalır
+        advance(250);
+        assertThatThrownBy(this::fetch).isInstanceOf(HttpServerErrorException.class);
+        assertThat(requests).hasValue(4);
+        advance(250);
+        assertThatThrownBy(this::fetch).isInstanceOf(CircuitOpenException.class);
+        assertThat(requests).hasValue(4);
+
+        fault = Fault.NONE;
+        advance(250);
+        assertThat(fetch()).isEqualTo("[]");
+        assertThat(circuitBreaker.getState(HOST)).isEqualTo(UpstreamCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getOpenHosts()).isEmpty();
+
+        // Kapandıktan sonra süre baştan başlar: yeni bir kesinti yine 200 ms ile açılır
+        fault = Fault.SERVER_ERROR;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(this::fetch).isInstanceOf(HttpServerErrorException.class);
+        }
+        fault = Fault.NONE;
+        advance(250);
+        assertThat(fetch()).isEqualTo("[]");
+    }
+
+    private String fetch() {
+        return restTemplate.getForObject("/yurt-tunnel/menu/liste?cityId=1&mealType=0", String.class);
+    }
+
+    private void advance(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private RestTemplate restTemplate(Duration readTimeout) {
+        return UpstreamClientConfig.createRestTemplate("http://" + HOST + ":" + server.getAddress().getPort(),
+                Duration.ofSeconds(1), readTimeout, circuitBreaker);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.kyk.mealtracker.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.repository.BotUserRepository;
+import com.kyk.mealtracker.services.CitySyncStatus;
+import com.kyk.mealtracker.services.MealService;
+import com.kyk.mealtracker.services.MealSyncService;
+import com.kyk.mealtracker.services.MealUpsertResult;
+import com.kyk.mealtracker.services.MealValidator;
+import com.kyk.mealtracker.services.MenuListParser;
+import com.kyk.mealtracker.services.MenuListValidators;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UpstreamClientTest {
+
+    private static final int CITIES = 81;
+    private static final int DAYS = 31;
+
+    private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+    private final AtomicLong bytesOnWire = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/yurt-tunnel/menu/liste", this::serveMenuList);
+        server.createContext("/hang", exchange -> {
+            sleep(5_000);
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void tunedClientSyncsAllCitiesWithLessTrafficThanPlainRestTemplate() throws Exception {
+        RestTemplate plain = new RestTemplate();
+        plain.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+        RestTemplate tuned = UpstreamClientConfig.createRestTemplate(baseUrl, Duration.ofSeconds(1), Duration.ofSeconds(5),
+                new UpstreamCircuitBreaker(3, 30_000, 60_000));
+
+        // Isınma: ilk bağlantılar ve JIT sonuçları etkilemesin
+        syncAllCities(plain);
+        syncAllCities(tuned);
+
+        SyncRun plainRun = syncAllCities(plain);
+        SyncRun tunedRun = syncAllCities(tuned);
+
+        assertThat(tunedRun.savedMeals).isEqualTo(plainRun.savedMeals).isEqualTo(CITIES * 2 * DAYS);
+        assertThat(tunedRun.wireBytes).isLessThan(plainRun.wireBytes / 3);
+        // Bağlantılar havuzdan yeniden kullanılır; istek başına yeni bağlantı açılmaz
+        assertThat(tunedRun.connections).isLessThan(tunedRun.requests / 10);
+    }
+
+    /**
+     * Ölçüm: 81 şehrin düz RestTemplate ve ayarlı istemciyle süresi ve trafiği. Yalnızca mvn -Pperf test ile çalışır.
+     */
+    @Test
+    @Tag("perf")
+    void reportsSyncTimeAndTrafficAgainstPlainRestTemplate() throws Exception {
+        RestTemplate plain = new RestTemplate();
+        plain.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+        RestTemplate tuned = UpstreamClientConfig.createRestTemplate(baseUrl, Duration.ofSeconds(1), Duration.ofSeconds(5),
+                new UpstreamCircuitBreaker(3, 30_000, 60_000));
+
+        // Isınma: ilk bağlantılar ve JIT sonuçları etkilemesin
+        syncAllCities(plain);
+        syncAllCities(tuned);
+
+        long plainStart = System.nanoTime();
+        SyncRun plainRun = syncAllCities(plain);
+        double plainMillis = (System.nanoTime() - plainStart) / 1e6;
+        long tunedStart = System.nanoTime();
+        SyncRun tunedRun = syncAllCities(tuned);
+        double tunedMillis = (System.nanoTime() - tunedStart) / 1e6;
+
+        assertThat(tunedRun.savedMeals).isEqualTo(plainRun.savedMeals);
+        System.out.printf("Upstream sync (%d şehir): düz RestTemplate %.0f ms / %d KB / %d bağlantı, "
+                        + "ayarlı istemci %.0f ms / %d KB / %d bağlantı%n",
+                CITIES, plainMillis, plainRun.wireBytes / 1024, plainRun.connections,
+                tunedMillis, tunedRun.wireBytes / 1024, tunedRun.connections);
+    }
+
+    @Test
+    void readTimeoutReleasesTheSyncThreadWhenUpstreamHangs() {
+        RestTemplate tuned = UpstreamClientConfig.createRestTemplate(baseUrl, Duration.ofSeconds(1), Duration.ofMillis(300),
+                new UpstreamCircuitBreaker(3, 30_000, 60_000));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> tuned.getForObject("/hang", byte[].class))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+    }
+
+    private SyncRun syncAllCities(RestTemplate restTemplate) throws Exception {
+        AtomicInteger savedMeals = new AtomicInteger();
+        MealService mealService = mock(MealService.class);
+        when(mealService.saveAllMeals(anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<Meal> meals = invocation.getArgument(0);
+            savedMeals.addAndGet(meals.size());
+            return MealUpsertResult.EMPTY;
+        });
+        MealSyncService syncService = new MealSyncService(mealService, restTemplate, mock(BotUserRepository.class),
+                new MenuListParser(new ObjectMapper().findAndRegisterModules()), new MealValidator(), new MenuListValidators(),
+                mock(CitySyncStatus.class));
+
+        LocalDate from = LocalDate.of(2026, 10, 1);
+        LocalDate to = from.plusDays(DAYS - 1);
+        long wireBefore = bytesOnWire.get();
+        requests.set(0);
+        clientPorts.clear();
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int cityId = 1; cityId <= CITIES; cityId++) {
+            int city = cityId;
+            futures.add(CompletableFuture.runAsync(() -> syncService.syncCity(city, from, to), workers));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        workers.shutdown();
+        return new SyncRun(bytesOnWire.get() - wireBefore, savedMeals.get(), requests.get(), clientPorts.size());
+    }
+
+    private void serveMenuList(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] body = bodies.computeIfAbsent(exchange.getRequestURI().getQuery(), UpstreamClientTest::menuList);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = gzip(body);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        sleep(2);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        bytesOnWire.addAndGet(body.length);
+    }
+
+    private static byte[] menuList(String query) {
+        StringBuilder json = new StringBuilder("[");
+        LocalDate date = LocalDate.of(2026, 9, 15);
+        for (int i = 0; i < 60; i++, date = date.plusDays(1)) {
+            if (i > 0) json.append(',');
+            json.append("{\"date\":\"").append(date).append("\",")
+                    .append("\"first\":\"Mercimek Çorbası\",\"firstCalories\":\"180\",")
+                    .append("\"second\":\"Tavuk Sote\",\"secondCalories\":\"420\",")
+                    .append("\"third\":\"Pirinç Pilavı\",\"thirdCalories\":\"350\",")
+                    .append("\"fourth\":\"Ayran\",\"fourthCalories\":\"120\",")
+                    .append("\"totalCalories\":\"1070\",\"query\":\"").append(query).append("\"}");
+        }
+        return json.append(']').toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record SyncRun(long wireBytes, int savedMeals, int requests, int connections) {
+    }
+}
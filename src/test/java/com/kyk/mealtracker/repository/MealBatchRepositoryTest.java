@@ -0,0 +1,99 @@
+package com.kyk.mealtracker.repository;
+
+import com.kyk.mealtracker.entity.Meal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MealBatchRepositoryTest {
+
+    private static final int CITIES = 81;
+    private static final int DAYS = 31;
+    private static final int BATCH_SIZE = 200;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private MealBatchRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.getConnection()).thenReturn(connection);
+        when(statement.executeBatch()).thenAnswer(invocation -> new int[BATCH_SIZE]);
+
+        repository = new MealBatchRepository(new JdbcTemplate(dataSource), BATCH_SIZE);
+    }
+
+    @Test
+    void wholeMonthForAllCitiesIsWrittenInAFewRoundTrips() throws Exception {
+        List<Meal> meals = monthForAllCities();
+
+        repository.upsertAll(meals);
+
+        // Eski yol satır başına iki ifade çalıştırıyordu; şimdi tek hazırlanmış ifade ve BATCH_SIZE'lık batch'ler
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(statement, times(meals.size())).addBatch();
+        verify(statement, times((meals.size() + BATCH_SIZE - 1) / BATCH_SIZE)).executeBatch();
+    }
+
+    @Test
+    void invalidRowNeverOverwritesAStoredValidRow() throws Exception {
+        repository.upsertAll(monthForAllCities().subList(0, 1));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        assertThat(sql.getValue()).contains("meals.valid = FALSE OR EXCLUDED.valid = TRUE");
+    }
+
+    @Test
+    void emptyListDoesNotTouchTheDatabase() throws Exception {
+        assertThat(repository.upsertAll(List.of())).isZero();
+        verify(connection, times(0)).prepareStatement(anyString());
+    }
+
+    private static List<Meal> monthForAllCities() {
+        List<Meal> meals = new ArrayList<>();
+        LocalDate start = LocalDate.of(2026, 10, 1);
+        for (int cityId = 1; cityId <= CITIES; cityId++) {
+            for (int day = 0; day < DAYS; day++) {
+                for (int mealType = 0; mealType <= 1; mealType++) {
+                    meals.add(Meal.builder()
+                            .date(start.plusDays(day))
+                            .mealType(mealType)
+                            .cityId(cityId)
+                            .first("Mercimek Çorbası").firstCalories("150")
+                            .second("Tavuk Sote").secondCalories("350")
+                            .third("Pilav").thirdCalories("250")
+                            .fourth("Ayran").fourthCalories("80")
+                            .totalCalories("830")
+                            .build());
+                }
+            }
+        }
+        return meals;
+    }
+}
@@ -0,0 +1,117 @@
+package com.kyk.mealtracker.repository;
+
+import com.kyk.mealtracker.entity.Meal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Şema Flyway ile kurulur, Hibernate yalnızca doğrular (ddl-auto=validate).
+ * Sıcak okuma sorgularının planları indeks kullandığını göstermelidir.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:mealplan;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=SECOND",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MealQueryPlanTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 10, 1);
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        if (mealRepository.count() > 0) return;
+        List<Meal> meals = new ArrayList<>();
+        for (int cityId = 1; cityId <= 81; cityId++) {
+            for (int day = 0; day < 30; day++) {
+                for (int mealType = 0; mealType <= 1; mealType++) {
+                    meals.add(Meal.builder()
+                            .cityId(cityId)
+                            .date(START.plusDays(day))
+                            .mealType(mealType)
+                            .first("Mercimek Çorbası")
+                            .second("Tavuk Sote")
+                            .third("Pilav")
+                            .build());
+                }
+            }
+        }
+        mealRepository.saveAll(meals);
+    }
+
+    @Test
+    void cityDayLookupUsesCompositeUniqueIndex() {
+        String plan = explain("SELECT * FROM meals WHERE date = DATE '2026-10-05' AND city_id = 34 AND valid = TRUE");
+
+        assertThat(plan).contains("uk_meals_city_date_type").doesNotContain("tableScan");
+        assertThat(mealRepository.findByDateAndCityIdAndValidTrue(START.plusDays(4), 34)).hasSize(2);
+    }
+
+    @Test
+    void cityRangeLookupUsesCompositeUniqueIndex() {
+        String plan = explain("SELECT * FROM meals WHERE city_id = 34 AND date BETWEEN DATE '2026-10-01' AND DATE '2026-10-07'");
+
+        assertThat(plan).contains("uk_meals_city_date_type").doesNotContain("tableScan");
+    }
+
+    @Test
+    void allCitiesDateRangeUsesDateIndex() {
+        String plan = explain("SELECT * FROM meals WHERE date BETWEEN DATE '2026-10-01' AND DATE '2026-10-07' AND valid = TRUE");
+
+        assertThat(plan).contains("idx_meals_date").doesNotContain("tableScan");
+        assertThat(mealRepository.findByDateBetweenAndValidTrue(START, START.plusDays(6))).hasSize(81 * 7 * 2);
+    }
+
+    @Test
+    void baselineMigrationCanRunAgainOnExistingSchema() throws Exception {
+        // Eski kurulumlarda tablolar zaten var; V1 hiçbir şeyi bozmadan tekrar çalışabilmeli
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline_schema.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V2__meals_hot_path_indexes.sql"));
+        }
+        assertThat(mealRepository.count()).isEqualTo(81 * 30 * 2);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Meal.class)
+    @EnableJpaRepositories(basePackageClasses = MealRepository.class)
+    static class JpaConfig {
+    }
+}
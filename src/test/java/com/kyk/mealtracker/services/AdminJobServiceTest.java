@@ -0,0 +1,98 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.bot.DeliveryStatus;
+import com.kyk.mealtracker.bot.OutboundDispatcher;
+import com.kyk.mealtracker.entity.Campaign;
+import com.kyk.mealtracker.repository.OutboxBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminJobServiceTest {
+
+    private static final Long ADMIN = 1L;
+
+    private OutboundDispatcher outboundDispatcher;
+    private OutboxService outboxService;
+    private MealSyncEngine mealSyncEngine;
+    private AdminJobService adminJobService;
+    private final List<OutboxService.DeliveryListener> listeners = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        outboundDispatcher = mock(OutboundDispatcher.class);
+        outboxService = mock(OutboxService.class);
+        mealSyncEngine = mock(MealSyncEngine.class);
+        // Kampanya oluşturulur ama gönderim bitmez; dinleyici testte elle tamamlanır
+        when(outboxService.start(any(Campaign.class), eq(OutboxBatchRepository.Audience.ALL_REACHABLE), any()))
+                .thenAnswer(invocation -> {
+                    listeners.add(invocation.getArgument(2));
+                    Campaign campaign = invocation.getArgument(0);
+                    campaign.setId((long) listeners.size());
+                    return campaign;
+                });
+        when(mealSyncEngine.syncAllActiveCities(true)).thenReturn(new SyncSummary());
+        adminJobService = new AdminJobService(outboundDispatcher, outboxService, mealSyncEngine, mock(MealService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        adminJobService.shutdown();
+    }
+
+    @Test
+    void drainingBroadcastsDoNotBlockOtherAdminJobs() {
+        AdminJob first = adminJobService.startBroadcast(ADMIN, "bir");
+        AdminJob second = adminJobService.startBroadcast(ADMIN, "iki");
+        verify(outboxService, timeout(5_000).times(2)).start(any(Campaign.class), any(), any());
+
+        // İki duyuru da gönderimdeyken iki thread'lik havuzda menü çekimi yine de çalışır
+        AdminJob fetch = adminJobService.startFetch(ADMIN);
+        verify(outboundDispatcher, timeout(5_000)).submit(anyLong(), any(PartialBotApiMethod.class));
+        assertThat(fetch.getStatus()).isEqualTo(AdminJob.Status.DONE);
+        assertThat(first.isFinished()).isFalse();
+        assertThat(second.isFinished()).isFalse();
+
+        listeners.forEach(OutboxService.DeliveryListener::onFinished);
+
+        verify(outboundDispatcher, timeout(5_000).times(3)).submit(anyLong(), any(PartialBotApiMethod.class));
+        assertThat(List.of(first, second)).allMatch(job -> job.getStatus() == AdminJob.Status.DONE);
+        assertThat(List.of(first.getResult(), second.getResult())).containsExactlyInAnyOrder("Kampanya #1", "Kampanya #2");
+    }
+
+    @Test
+    void unreachableAndSkippedChatsAreNotReportedAsFailures() {
+        AdminJob job = adminJobService.startBroadcast(ADMIN, "duyuru");
+        verify(outboxService, timeout(5_000)).start(any(Campaign.class), any(), any());
+        OutboxService.DeliveryListener listener = listeners.get(0);
+
+        listener.onTotal(5);
+        listener.onDelivery(DeliveryStatus.SENT);
+        listener.onDelivery(DeliveryStatus.SENT);
+        listener.onDelivery(DeliveryStatus.BLOCKED);
+        listener.onDelivery(DeliveryStatus.SKIPPED);
+        listener.onDelivery(DeliveryStatus.FAILED);
+
+        assertThat(job.getSent()).hasValue(2);
+        assertThat(job.getFailed()).hasValue(1);
+        assertThat(job.getUnreachable()).hasValue(1);
+        assertThat(job.getSkipped()).hasValue(1);
+        assertThat(job.describe())
+                .contains("2/5 gönderildi (1 başarısız)")
+                .contains("1 ulaşılamayan")
+                .contains("1 atlanan");
+    }
+}
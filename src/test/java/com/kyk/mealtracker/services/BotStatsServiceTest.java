@@ -0,0 +1,89 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.repository.BotUserBatchRepository;
+import com.kyk.mealtracker.repository.BotUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BotStatsServiceTest {
+
+    private BotUserRepository botUserRepository;
+    private BotUserBatchRepository batchRepository;
+    private BotStatsService stats;
+
+    @BeforeEach
+    void setUp() {
+        botUserRepository = mock(BotUserRepository.class);
+        batchRepository = mock(BotUserBatchRepository.class);
+        when(botUserRepository.count()).thenReturn(1_000L);
+        when(botUserRepository.countByNotificationsEnabledTrue()).thenReturn(800L);
+        when(botUserRepository.countByBlockedAtIsNotNull()).thenReturn(50L);
+        doAnswer(invocation -> {
+            BiConsumer<Long, LocalDateTime> consumer = invocation.getArgument(1);
+            LocalDateTime now = LocalDateTime.now();
+            consumer.accept(1L, now.minusHours(2));
+            consumer.accept(2L, now.minusHours(23));
+            return null;
+        }).when(batchRepository).forEachActiveSince(any(), any());
+        stats = new BotStatsService(botUserRepository, batchRepository);
+        stats.reconcile();
+    }
+
+    @Test
+    void activeUsersAreCountedOnceWithinTheWindow() {
+        stats.recordActivity(1L);
+        stats.recordActivity(1L);
+        stats.recordActivity(3L);
+
+        // 1 ve 2 veritabanından, 3 yeni; 1'in tekrar etkin olması ikinci kez sayılmaz
+        assertThat(stats.snapshot().activeLast24Hours()).isEqualTo(3);
+    }
+
+    @Test
+    void eventsUpdateCountersWithoutQueries() {
+        stats.onUserRegistered(new UserRegisteredEvent(42L));
+        stats.onNotificationsToggled(false);
+        stats.onReachabilityChanged(false);
+
+        BotStatsService.Snapshot snapshot = stats.snapshot();
+        assertThat(snapshot.totalUsers()).isEqualTo(1_001);
+        assertThat(snapshot.notificationsEnabled()).isEqualTo(800);
+        assertThat(snapshot.unreachable()).isEqualTo(51);
+        assertThat(snapshot.registeredLast24Hours()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotIsServedFromMemory() {
+        clearInvocations(botUserRepository, batchRepository);
+
+        stats.snapshot();
+        stats.snapshot();
+
+        verifyNoInteractions(botUserRepository, batchRepository);
+    }
+
+    @Test
+    void ringDropsBucketsOlderThanTheWindow() {
+        MinuteBucketRing ring = new MinuteBucketRing(60);
+        ring.add(1_000, 5, 1_000);
+        ring.add(1_030, 2, 1_030);
+
+        assertThat(ring.sum(1_030)).isEqualTo(7);
+        assertThat(ring.sum(1_060)).isEqualTo(2);
+        // Aynı kovaya denk gelen yeni dakika eski sayıyı siler; eski dakikadan düşme yok sayılır
+        ring.add(1_060, 1, 1_060);
+        ring.add(1_000, -1, 1_060);
+        assertThat(ring.sum(1_060)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,82 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.repository.MealBatchRepository;
+import com.kyk.mealtracker.repository.MealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MealServiceTest {
+
+    private static final int CITY_ID = 34;
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    private MealBatchRepository mealBatchRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private MealService mealService;
+
+    @BeforeEach
+    void setUp() {
+        mealBatchRepository = mock(MealBatchRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        mealService = new MealService(mock(MealRepository.class), mealBatchRepository, mock(MealCache.class),
+                eventPublisher, new MealValidator(), new MenuListValidators());
+    }
+
+    @Test
+    void spamRowDoesNotReplaceStoredValidMenu() {
+        Meal stored = meal("Mercimek Çorbası", "Tavuk Sote", "Pilav", "Ayran");
+        when(mealBatchRepository.findStoredMeals(eq(CITY_ID), any(), any())).thenReturn(Map.of(
+                MealBatchRepository.Key.of(stored),
+                new MealBatchRepository.StoredMeal(stored.computeContentHash(), true)));
+
+        // Kaynak boş günlerde menü yerine tanıtım metni yayınlıyor
+        Meal spam = meal("Menüyü mail ile gönderip katkı sağlayın", "", "", "");
+        MealUpsertResult result = mealService.saveAllMeals(List.of(spam));
+
+        assertThat(spam.isValid()).isFalse();
+        assertThat(result).isEqualTo(new MealUpsertResult(0, 0, 1));
+        verify(mealBatchRepository).upsertAll(List.of());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void validRowReplacesStoredInvalidOne() {
+        Meal spam = meal("Menüyü mail ile gönderip katkı sağlayın", "", "", "");
+        when(mealBatchRepository.findStoredMeals(eq(CITY_ID), any(), any())).thenReturn(Map.of(
+                MealBatchRepository.Key.of(spam),
+                new MealBatchRepository.StoredMeal(spam.computeContentHash(), false)));
+
+        Meal menu = meal("Mercimek Çorbası", "Tavuk Sote", "Pilav", "Ayran");
+        MealUpsertResult result = mealService.saveAllMeals(List.of(menu));
+
+        assertThat(result).isEqualTo(new MealUpsertResult(0, 1, 0));
+        verify(mealBatchRepository).upsertAll(List.of(menu));
+        verify(eventPublisher).publishEvent(any(MealsChangedEvent.class));
+    }
+
+    private static Meal meal(String first, String second, String third, String fourth) {
+        return Meal.builder()
+                .date(DAY)
+                .mealType(1)
+                .cityId(CITY_ID)
+                .first(first)
+                .second(second)
+                .third(third)
+                .fourth(fourth)
+                .build();
+    }
+}
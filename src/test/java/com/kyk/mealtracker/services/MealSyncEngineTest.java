@@ -0,0 +1,151 @@
+package com.kyk.mealtracker.services;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.kyk.mealtracker.entity.Meal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MealSyncEngineTest {
+
+    private final ConcurrentHashMap<Integer, AtomicInteger> syncsByCity = new ConcurrentHashMap<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch citiesStarted = new CountDownLatch(3);
+    private final CountDownLatch fullSyncJoined = new CountDownLatch(1);
+    private final AppenderBase<ILoggingEvent> joinListener = new AppenderBase<>() {
+        @Override
+        protected void append(ILoggingEvent event) {
+            if (event.getFormattedMessage().startsWith("Devam eden yemek senkronizasyonu bekleniyor")) {
+                fullSyncJoined.countDown();
+            }
+        }
+    };
+    private MealSyncService mealSyncService;
+    private MealService mealService;
+    private CitySyncStatus citySyncStatus;
+    private MealSyncEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        mealSyncService = mock(MealSyncService.class);
+        when(mealSyncService.findActiveCityIds()).thenReturn(List.of(6, 34, 35));
+        when(mealSyncService.syncCity(anyInt(), any(), any(), anyBoolean())).thenAnswer(invocation -> {
+            int cityId = invocation.getArgument(0);
+            syncsByCity.computeIfAbsent(cityId, k -> new AtomicInteger()).incrementAndGet();
+            citiesStarted.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new CitySyncResult(cityId, CitySyncResult.Status.OK, 0, 0, 0, 2, 0, 0, 0, 0, 0, null);
+        });
+        mealService = mock(MealService.class);
+        citySyncStatus = mock(CitySyncStatus.class);
+        engine = new MealSyncEngine(mealSyncService, mealService, citySyncStatus, 4, 30, 15);
+        joinListener.start();
+        engineLogger().addAppender(joinListener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engineLogger().detachAppender(joinListener);
+        release.countDown();
+        engine.shutdown();
+    }
+
+    @Test
+    void concurrentCityRefreshesShareOneSync() throws Exception {
+        List<CompletableFuture<CitySyncResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            engine.refreshCityIfNeeded(34).ifPresent(futures::add);
+        }
+        release.countDown();
+
+        assertThat(futures).hasSize(20).allMatch(future -> future == futures.get(0));
+        assertThat(futures.get(0).get(5, TimeUnit.SECONDS).status()).isEqualTo(CitySyncResult.Status.OK);
+        assertThat(syncsByCity.get(34)).hasValue(1);
+    }
+
+    @Test
+    void overlappingFullSyncsAndCityRefreshRunEachCityOnce() throws Exception {
+        CompletableFuture<CitySyncResult> refresh = engine.refreshCityIfNeeded(34).orElseThrow();
+        CompletableFuture<SyncSummary> cron = CompletableFuture.supplyAsync(engine::syncAllActiveCities);
+        assertThat(citiesStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // Cron bütün şehirleri başlattı; admin çağrısı devam eden senkronizasyona katılana kadar hiçbiri bitmez
+        CompletableFuture<SyncSummary> admin = CompletableFuture.supplyAsync(() -> engine.syncAllActiveCities(true));
+        assertThat(fullSyncJoined.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        SyncSummary first = cron.get(5, TimeUnit.SECONDS);
+        SyncSummary second = admin.get(5, TimeUnit.SECONDS);
+        assertThat(refresh.get(5, TimeUnit.SECONDS).cityId()).isEqualTo(34);
+        assertThat(first).isSameAs(second);
+        assertThat(first.getResults()).hasSize(3);
+        assertThat(syncsByCity).containsOnlyKeys(6, 34, 35);
+        assertThat(syncsByCity.values()).allMatch(count -> count.get() == 1);
+    }
+
+    @Test
+    void timedOutCityStaysInFlightUntilTheWorkerReallyFinishes() throws Exception {
+        engine.shutdown();
+        // Tek işçi: kuyruktaki işler sırayla ve aynı thread'de çalışır
+        engine = new MealSyncEngine(mealSyncService, mealService, citySyncStatus, 1, 1, 15);
+        LocalDate today = LocalDate.now();
+
+        CitySyncResult timedOut = engine.refreshCityIfNeeded(34).orElseThrow().get(5, TimeUnit.SECONDS);
+        assertThat(timedOut.status()).isEqualTo(CitySyncResult.Status.FAILED);
+        assertThat(timedOut.error()).isEqualTo("zaman aşımı");
+
+        // İlk iş hâlâ yazıyor: yeni bir senkronizasyon aynı şehri ikinci kez başlatmaz
+        SyncSummary overlapping = engine.sync(List.of(34), today, today);
+        assertThat(overlapping.getResults()).containsExactly(timedOut);
+        assertThat(syncsByCity.get(34)).hasValue(1);
+
+        release.countDown();
+        // 6'nın işi 34'ünkünden sonra kuyruğa girdi; sonucu geldiğinde 34'ün işçisi kaydını çoktan silmiştir
+        assertThat(engine.sync(List.of(6), today, today).getResults().get(0).status()).isEqualTo(CitySyncResult.Status.OK);
+        SyncSummary next = engine.sync(List.of(34), today, today);
+        assertThat(next.getResults().get(0)).isNotSameAs(timedOut);
+        assertThat(next.getResults().get(0).status()).isEqualTo(CitySyncResult.Status.OK);
+        assertThat(syncsByCity.get(34)).hasValue(2);
+    }
+
+    @Test
+    void refreshesOnlyWhenMissingOrStaleAndAtMostOncePerInterval() throws Exception {
+        when(mealService.getMealsByDateAndCity(eq(LocalDate.now()), eq(6))).thenReturn(List.of(new Meal()));
+        assertThat(engine.refreshCityIfNeeded(6)).isEmpty();
+
+        when(citySyncStatus.isStale(6)).thenReturn(true);
+        Optional<CompletableFuture<CitySyncResult>> stale = engine.refreshCityIfNeeded(6);
+        assertThat(stale).isPresent();
+        release.countDown();
+        stale.get().get(5, TimeUnit.SECONDS);
+
+        // İşçi kaydı silene kadar aynı (tamamlanmış) iş dönebilir; yeni bir iş başlamamalı
+        assertThat(engine.refreshCityIfNeeded(6).filter(future -> future != stale.get())).isEmpty();
+        assertThat(engine.refreshCityIfNeeded(0)).isEmpty();
+        assertThat(syncsByCity.get(6)).hasValue(1);
+    }
+
+    private static Logger engineLogger() {
+        return (Logger) LoggerFactory.getLogger(MealSyncEngine.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.kyk.mealtracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.http.UpstreamCircuitBreaker;
+import com.kyk.mealtracker.http.UpstreamClientConfig;
+import com.kyk.mealtracker.repository.BotUserRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MealSyncServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 10, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 10, 31);
+
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicInteger savedMeals = new AtomicInteger();
+    private volatile boolean sendEtag = true;
+    private volatile String calories = "1070";
+    private HttpServer server;
+    private MenuListValidators validators;
+    private MealSyncService syncService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/yurt-tunnel/menu/liste", this::serveMenuList);
+        server.start();
+
+        MealService mealService = mock(MealService.class);
+        when(mealService.saveAllMeals(anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<Meal> meals = invocation.getArgument(0);
+            savedMeals.addAndGet(meals.size());
+            return MealUpsertResult.EMPTY;
+        });
+        validators = new MenuListValidators();
+        syncService = new MealSyncService(mealService,
+                UpstreamClientConfig.createRestTemplate("http://127.0.0.1:" + server.getAddress().getPort(),
+                        Duration.ofSeconds(1), Duration.ofSeconds(5), new UpstreamCircuitBreaker(3, 30_000, 60_000)),
+                mock(BotUserRepository.class),
+                new MenuListParser(new ObjectMapper().findAndRegisterModules()),
+                new MealValidator(), validators, mock(CitySyncStatus.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void unchangedListIsAnsweredWith304AndNotPersisted() {
+        CitySyncResult first = syncService.syncCity(34, FROM, TO);
+        CitySyncResult second = syncService.syncCity(34, FROM.plusDays(5), TO);
+
+        assertThat(first.listsNotModified()).isZero();
+        assertThat(second.listsNotModified()).isEqualTo(2);
+        assertThat(second.bytesDownloaded()).isZero();
+        assertThat(notModifiedResponses).hasValue(2);
+        assertThat(savedMeals).hasValue(62);
+    }
+
+    @Test
+    void identicalBodyIsSkippedWhenUpstreamSendsNoValidators() {
+        sendEtag = false;
+        syncService.syncCity(34, FROM, TO);
+        CitySyncResult second = syncService.syncCity(34, FROM, TO);
+
+        assertThat(second.listsNotModified()).isEqualTo(2);
+        assertThat(savedMeals).hasValue(62);
+
+        calories = "990";
+        assertThat(syncService.syncCity(34, FROM, TO).listsNotModified()).isZero();
+        assertThat(savedMeals).hasValue(124);
+    }
+
+    @Test
+    void forcedSyncWiderWindowAndClearedValidatorsDownloadAgain() {
+        syncService.syncCity(34, FROM.plusDays(10), TO);
+
+        assertThat(syncService.syncCity(34, FROM, TO).listsNotModified()).isZero();
+        assertThat(syncService.syncCity(34, FROM, TO, true).listsNotModified()).isZero();
+        validators.clear();
+        assertThat(syncService.syncCity(34, FROM, TO).listsNotModified()).isZero();
+        assertThat(notModifiedResponses).hasValue(0);
+    }
+
+    private void serveMenuList(HttpExchange exchange) throws IOException {
+        String etag = "\"" + calories + "\"";
+        if (sendEtag && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (LocalDate date = FROM; !date.isAfter(TO); date = date.plusDays(1)) {
+            if (json.length() > 1) json.append(',');
+            json.append("{\"date\":\"").append(date).append("\",")
+                    .append("\"first\":\"Ezogelin Çorbası\",\"second\":\"Etli Nohut\",")
+                    .append("\"third\":\"Bulgur Pilavı\",\"fourth\":\"Cacık\",")
+                    .append("\"totalCalories\":\"").append(calories).append("\"}");
+        }
+        byte[] body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        if (sendEtag) exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
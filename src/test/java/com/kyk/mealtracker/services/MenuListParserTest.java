@@ -0,0 +1,140 @@
+package com.kyk.mealtracker.services;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyk.mealtracker.entity.Meal;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MenuListParserTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 10, 17);
+    private static final LocalDate TO = LocalDate.of(2026, 10, 31);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final MenuListParser parser = new MenuListParser(objectMapper);
+
+    @Test
+    void producesTheSameMealsAsFullDeserializationForTheWindow() throws Exception {
+        byte[] body = menuList(1, 120);
+        List<Meal> streamed = new ArrayList<>();
+
+        int entries = parser.parse(body, FROM, TO, streamed::add);
+
+        List<Meal> legacy = Arrays.stream(objectMapper.readValue(body, Meal[].class))
+                .filter(meal -> !meal.getDate().isBefore(FROM) && !meal.getDate().isAfter(TO))
+                .toList();
+        assertThat(entries).isEqualTo(120);
+        assertThat(streamed).hasSize(15);
+        assertThat(streamed).usingRecursiveFieldByFieldElementComparatorIgnoringFields("id").isEqualTo(legacy);
+    }
+
+    @Test
+    void handlesFieldOrderNullsNumbersAndTimestamps() {
+        String json = """
+                [null,
+                 {"first":"Menemen","totalCalories":650,"mealType":0,"extra":{"a":[1,2]},"date":"2026-10-20T00:00:00"},
+                 {"date":"2026-11-02","first":"Dışarıda"},
+                 {"first":"Tarihsiz"},
+                 {"date":null,"first":"Boş tarih"}]
+                """;
+        List<Meal> meals = new ArrayList<>();
+
+        parser.parse(json.getBytes(StandardCharsets.UTF_8), FROM, TO, meals::add);
+
+        assertThat(meals).singleElement().satisfies(meal -> {
+            assertThat(meal.getDate()).isEqualTo(LocalDate.of(2026, 10, 20));
+            assertThat(meal.getFirst()).isEqualTo("Menemen");
+            assertThat(meal.getTotalCalories()).isEqualTo("650");
+            assertThat(meal.getMealType()).isZero();
+        });
+    }
+
+    @Test
+    void rejectsNonArrayBodies() {
+        assertThatThrownBy(() -> parser.parse("{\"error\":1}".getBytes(StandardCharsets.UTF_8), FROM, TO, meal -> {}))
+                .hasMessageContaining("çözümlenemedi");
+        assertThat(parser.parse(new byte[0], FROM, TO, meal -> {})).isZero();
+    }
+
+    /**
+     * 81 şehir x 2 öğün listesini (her biri 120 gün) eski yöntemle (tüm diziyi Meal[] olarak açıp süzmek)
+     * ve akış çözümleyiciyle okur; thread'in ayırdığı bellek ve GC sayısını karşılaştırır. Yalnızca mvn -Pperf test ile çalışır.
+     */
+    @Test
+    @Tag("perf")
+    void reportsAllocationAgainstFullDeserialization() throws Exception {
+        List<byte[]> bodies = new ArrayList<>();
+        for (int i = 0; i < 81 * 2; i++) bodies.add(menuList(i, 120));
+        Consumer<Meal> sink = meal -> {};
+
+        Runnable legacy = () -> bodies.forEach(body -> {
+            try {
+                Arrays.stream(objectMapper.readValue(body, Meal[].class))
+                        .filter(meal -> !meal.getDate().isBefore(FROM) && !meal.getDate().isAfter(TO))
+                        .forEach(sink);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Runnable streaming = () -> bodies.forEach(body -> parser.parse(body, FROM, TO, sink));
+
+        // Isınma
+        for (int i = 0; i < 5; i++) {
+            legacy.run();
+            streaming.run();
+        }
+
+        Measurement before = measure(legacy);
+        Measurement after = measure(streaming);
+        System.out.printf("Menü çözümleme (81 şehir): eski %,d KB / %d GC, akış %,d KB / %d GC%n",
+                before.allocatedBytes / 1024, before.gcCount, after.allocatedBytes / 1024, after.gcCount);
+    }
+
+    private static Measurement measure(Runnable task) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long gcBefore = gcCount();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        task.run();
+        return new Measurement(threads.getThreadAllocatedBytes(threadId) - allocatedBefore, gcCount() - gcBefore);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count >= 0)
+                .sum();
+    }
+
+    private static byte[] menuList(int seed, int days) {
+        StringBuilder json = new StringBuilder("[");
+        LocalDate date = LocalDate.of(2026, 9, 1);
+        for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(seed * 1000 + i)
+                    .append(",\"date\":\"").append(date).append("\",\"mealType\":").append(seed % 2)
+                    .append(",\"first\":\"Mercimek Çorbası\",\"firstCalories\":\"180\"")
+                    .append(",\"second\":\"Tavuk Sote ").append(i).append("\",\"secondCalories\":\"420\"")
+                    .append(",\"third\":\"Pirinç Pilavı\",\"thirdCalories\":\"350\"")
+                    .append(",\"fourth\":\"Ayran\",\"fourthCalories\":\"120\",\"totalCalories\":\"1070\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Measurement(long allocatedBytes, long gcCount) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.entity.Meal;
+import com.kyk.mealtracker.http.UpstreamCircuitBreaker;
+import com.kyk.mealtracker.repository.CitySyncStatusRepository;
+import com.kyk.mealtracker.repository.MealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MenuSnapshotStoreTest {
+
+    private static final int DAYS = 7;
+    private static final int ITERATIONS = 200_000;
+
+    private MealRepository mealRepository;
+    private MealService mealService;
+    private MealMessageFormatter formatter;
+    private UpstreamCircuitBreaker circuitBreaker;
+    private CitySyncStatus citySyncStatus;
+    private MealSyncEngine mealSyncEngine;
+    private MenuSnapshotStore store;
+    private List<Meal> meals;
+
+    @BeforeEach
+    void setUp() {
+        mealRepository = mock(MealRepository.class);
+        mealService = mock(MealService.class);
+        formatter = spy(new MealMessageFormatter());
+        meals = weekForAllCities();
+        when(mealRepository.findByDateBetweenAndValidTrue(any(), any())).thenReturn(meals);
+        circuitBreaker = new UpstreamCircuitBreaker(3, 60_000, 60_000);
+        // Eşik 0 saat: senkronize edilmiş her şehir bayat sayılır, hiç edilmemiş olanlara uyarı eklenmez
+        citySyncStatus = new CitySyncStatus(mock(CitySyncStatusRepository.class), circuitBreaker, 0);
+        mealSyncEngine = mock(MealSyncEngine.class);
+        store = new MenuSnapshotStore(mealRepository, mealService, formatter, citySyncStatus, mealSyncEngine, DAYS);
+        store.rebuild();
+    }
+
+    @Test
+    void snapshotMatchesTheRenderedMessage() {
+        LocalDate today = LocalDate.now();
+        List<Meal> istanbul = cityDay(34, today);
+
+        assertThat(store.size()).isEqualTo(81 * DAYS);
+        assertThat(store.getMenuMessage(34, today)).isEqualTo(formatter.renderDayMenu(today, istanbul));
+        assertThat(store.getMenuMessage(34, today)).isEqualTo(legacyRender(today, istanbul));
+        assertThat(store.getNotification(34, today, 0)).contains(formatter.renderNotification(0, today, istanbul.get(0)));
+    }
+
+    @Test
+    void changedDayIsReRenderedWithoutFullRebuild() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Meal updated = meal(6, tomorrow, 0);
+        updated.setFirst("Menemen");
+        when(mealRepository.findByDateAndCityIdAndValidTrue(tomorrow, 6)).thenReturn(List.of(updated));
+
+        store.onMealsChanged(new MealsChangedEvent(Set.of(new MealCache.Key(6, tomorrow))));
+
+        assertThat(store.getMenuMessage(6, tomorrow)).contains("Menemen").doesNotContain("AKŞAM");
+        assertThat(store.getMenuMessage(7, tomorrow)).doesNotContain("Menemen");
+    }
+
+    @Test
+    void staleCityGetsTheLastKnownMenuWithAWarning() {
+        LocalDate today = LocalDate.now();
+        citySyncStatus.markSynced(34);
+        LocalDateTime lastSync = citySyncStatus.getLastSuccessfulSync(34).orElseThrow();
+        for (int i = 0; i < 3; i++) circuitBreaker.onFailure("kykyemekliste.com");
+
+        assertThat(store.getMenuMessage(34, today))
+                .startsWith(formatter.renderDayMenu(today, cityDay(34, today)))
+                .endsWith(formatter.renderStaleNote(lastSync, false))
+                .contains("ulaşılamıyor");
+        assertThat(store.getMenuMessage(34, today.plusDays(30)))
+                .contains("henüz yayınlanmamış")
+                .endsWith(formatter.renderUpstreamUnavailableNote());
+        assertThat(store.getMenuMessage(6, today)).isEqualTo(formatter.renderDayMenu(today, cityDay(6, today)));
+        verify(mealSyncEngine).refreshCityIfNeeded(34);
+        verify(mealSyncEngine, never()).refreshCityIfNeeded(6);
+    }
+
+    @Test
+    void staleCityWithReachableUpstreamOnlyShowsTheLastUpdate() {
+        LocalDate today = LocalDate.now();
+        citySyncStatus.markSynced(34);
+        LocalDateTime lastSync = citySyncStatus.getLastSuccessfulSync(34).orElseThrow();
+
+        // Yalnızca eşik aşıldı; kaynak ayakta olduğu için erişim uyarısı gösterilmemeli
+        assertThat(store.getMenuMessage(34, today))
+                .endsWith(formatter.renderStaleNote(lastSync, true))
+                .doesNotContain("ulaşılamıyor");
+        verify(mealSyncEngine).refreshCityIfNeeded(34);
+    }
+
+    @Test
+    void repeatedLookupsNeitherQueryNorRender() {
+        LocalDate today = LocalDate.now();
+        String first = store.getMenuMessage(34, today);
+        clearInvocations(mealRepository, mealService, formatter);
+
+        assertThat(store.getMenuMessage(34, today)).isEqualTo(first);
+        assertThat(store.getNotification(34, today, 1)).isPresent();
+
+        verifyNoInteractions(mealRepository, mealService, formatter);
+    }
+
+    /**
+     * Ölçüm: anlık görüntüden okuma ile her istekte yeniden oluşturma. Yalnızca mvn -Pperf test ile çalışır.
+     */
+    @Test
+    @Tag("perf")
+    void reportsSnapshotLookupAgainstRenderingPerRequest() {
+        LocalDate today = LocalDate.now();
+        List<Meal> istanbul = cityDay(34, today);
+
+        // Isınma
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            legacyRender(today, istanbul);
+            store.getMenuMessage(34, today);
+        }
+
+        long legacyStart = System.nanoTime();
+        int legacyChars = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            legacyChars += legacyRender(today, istanbul).length();
+        }
+        long legacyNanos = System.nanoTime() - legacyStart;
+
+        long snapshotStart = System.nanoTime();
+        int snapshotChars = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            snapshotChars += store.getMenuMessage(34, today).length();
+        }
+        long snapshotNanos = System.nanoTime() - snapshotStart;
+
+        assertThat(snapshotChars).isEqualTo(legacyChars);
+        System.out.printf("Menü mesajı (%d istek): eski yol %.0f ns/istek, anlık görüntü %.0f ns/istek (%.1fx)%n",
+                ITERATIONS, (double) legacyNanos / ITERATIONS, (double) snapshotNanos / ITERATIONS,
+                (double) legacyNanos / snapshotNanos);
+    }
+
+    private List<Meal> cityDay(int cityId, LocalDate date) {
+        return meals.stream().filter(m -> m.getCityId() == cityId && m.getDate().equals(date)).toList();
+    }
+
+    private static List<Meal> weekForAllCities() {
+        List<Meal> meals = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int cityId = 1; cityId <= 81; cityId++) {
+            for (int day = 0; day < DAYS; day++) {
+                meals.add(meal(cityId, today.plusDays(day), 0));
+                meals.add(meal(cityId, today.plusDays(day), 1));
+            }
+        }
+        return meals;
+    }
+
+    private static Meal meal(int cityId, LocalDate date, int mealType) {
+        return Meal.builder()
+                .cityId(cityId)
+                .date(date)
+                .mealType(mealType)
+                .first("Mercimek Çorbası").firstCalories("150")
+                .second("Tavuk Sote").secondCalories("350")
+                .third("Pilav").thirdCalories("250")
+                .fourth("Ayran").fourthCalories("80")
+                .totalCalories("830")
+                .build();
+    }
+
+    // KykMealBot.sendMealMessage'ın önceki hali: her istekte filtre, formatlayıcı ve kalori ayrıştırma
+    private static String legacyRender(LocalDate date, List<Meal> meals) {
+        List<Meal> validMeals = meals.stream().filter(MenuSnapshotStoreTest::legacyIsValid).toList();
+        if (validMeals.isEmpty()) {
+            String formattedDate = date.format(DateTimeFormatter.ofPattern("dd MMMM yyyy", new Locale("tr")));
+            return "📅 " + formattedDate + " tarihine ait menü henüz yayınlanmamış.";
+        }
+        StringBuilder builder = new StringBuilder();
+        String formattedDate = date.format(DateTimeFormatter.ofPattern("dd MMMM yyyy", new Locale("tr")));
+        builder.append("📅 ").append(formattedDate).append("\n━━━━━━━━━━━━━━━━━━\n\n");
+        validMeals.stream().filter(meal -> meal.getMealType() == 0).findFirst().ifPresent(breakfast -> {
+            legacyFormatMeal(builder, "🌅 KAHVALTI", breakfast);
+            builder.append("\n");
+        });
+        validMeals.stream().filter(meal -> meal.getMealType() == 1).findFirst()
+                .ifPresent(dinner -> legacyFormatMeal(builder, "🍽️ AKŞAM YEMEĞİ", dinner));
+        return builder.toString();
+    }
+
+    private static void legacyFormatMeal(StringBuilder builder, String title, Meal meal) {
+        String totalCal = meal.getTotalCalories();
+        builder.append(title);
+        if (totalCal != null && !totalCal.trim().isEmpty()) {
+            builder.append(" (").append(totalCal).append(" kcal)");
+        }
+        builder.append("\n━━━━━━━━━━━━━━━━━━\n");
+        legacyFormatItem(builder, meal.getFirst(), meal.getFirstCalories());
+        legacyFormatItem(builder, meal.getSecond(), meal.getSecondCalories());
+        legacyFormatItem(builder, meal.getThird(), meal.getThirdCalories());
+        legacyFormatItem(builder, meal.getFourth(), meal.getFourthCalories());
+    }
+
+    private static void legacyFormatItem(StringBuilder builder, String item, String calories) {
+        if (item == null || item.trim().isEmpty()) return;
+        builder.append("✓ ").append(item);
+        Integer cal = null;
+        if (calories != null && !calories.trim().isEmpty()) {
+            try { cal = Integer.parseInt(calories.trim()); } catch (NumberFormatException ignored) { }
+        }
+        if (cal != null && cal > 0) {
+            builder.append(" (").append(cal).append(" kcal)");
+        }
+        builder.append("\n");
+    }
+
+    private static boolean legacyIsValid(Meal meal) {
+        String[] items = {meal.getFirst(), meal.getSecond(), meal.getThird(), meal.getFourth()};
+        int validItemCount = 0;
+        for (String item : items) {
+            if (item == null || item.trim().isEmpty()) continue;
+            String lowerItem = item.toLowerCase().trim();
+            if (lowerItem.contains("@") || lowerItem.contains("mail") || lowerItem.contains("gönderip") ||
+                lowerItem.contains("katkı sağla") || lowerItem.contains("uygulamaya") ||
+                lowerItem.contains("listesini") || lowerItem.contains("daha hızlı") ||
+                lowerItem.contains("girilmesine")) return false;
+            if (item.trim().length() >= 3 && item.trim().length() <= 100) validItemCount++;
+        }
+        return validItemCount >= 3;
+    }
+}
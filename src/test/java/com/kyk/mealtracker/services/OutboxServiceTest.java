@@ -0,0 +1,246 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.bot.OutboundDispatcher;
+import com.kyk.mealtracker.entity.Campaign;
+import com.kyk.mealtracker.entity.OutboxMessage;
+import com.kyk.mealtracker.repository.CampaignRepository;
+import com.kyk.mealtracker.repository.OutboxBatchRepository;
+import com.kyk.mealtracker.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=SECOND",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxServiceTest {
+
+    private static final int RECIPIENTS = 5_000;
+
+    @Autowired
+    private CampaignRepository campaignRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, AtomicInteger> receivedByChat = new ConcurrentHashMap<>();
+    private OutboundDispatcher dispatcher;
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AbsSender telegram = mock(AbsSender.class);
+        doAnswer(invocation -> {
+            SendMessage message = invocation.getArgument(0);
+            receivedByChat.computeIfAbsent(Long.valueOf(message.getChatId()), k -> new AtomicInteger()).incrementAndGet();
+            return null;
+        }).when(telegram).execute(any(BotApiMethod.class));
+
+        dispatcher = new OutboundDispatcher(telegram, event -> {}, 8, 1_000_000, 0, 3);
+        outboxService = new OutboxService(campaignRepository, outboxMessageRepository,
+                new OutboxBatchRepository(jdbcTemplate), dispatcher, transactionManager, 500, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxService.shutdown();
+        dispatcher.shutdown();
+        outboxMessageRepository.deleteAll();
+        campaignRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM bot_users");
+    }
+
+    @Test
+    void deliversEveryRecipientExactlyOnce() {
+        seedUsers(RECIPIENTS, 34);
+
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        Campaign campaign = outboxService.start(broadcast("throughput"), OutboxBatchRepository.Audience.ALL_REACHABLE, new OutboxService.DeliveryListener() {
+            @Override
+            public void onFinished() {
+                finished.complete(null);
+            }
+        });
+        finished.orTimeout(60, TimeUnit.SECONDS).join();
+
+        assertThat(receivedByChat).hasSize(RECIPIENTS);
+        assertThat(receivedByChat.values()).allMatch(count -> count.get() == 1);
+        assertThat(outboxMessageRepository.countByCampaignIdAndStatus(campaign.getId(), OutboxMessage.Status.SENT))
+                .isEqualTo(RECIPIENTS);
+        assertThat(outboxMessageRepository.countByCampaignIdAndStatus(campaign.getId(), OutboxMessage.Status.FAILED))
+                .isZero();
+        assertThat(campaignRepository.findById(campaign.getId()).orElseThrow().getStatus()).isEqualTo(Campaign.Status.DONE);
+    }
+
+    /**
+     * Ölçüm: taklit Telegram istemcisiyle outbox'ın saniyede tükettiği mesaj sayısı. Yalnızca mvn -Pperf test ile çalışır.
+     */
+    @Test
+    @Tag("perf")
+    void reportsThroughputWithAStubbedTelegramClient() {
+        seedUsers(RECIPIENTS, 34);
+
+        long start = System.nanoTime();
+        awaitStart(broadcast("throughput"));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(receivedByChat).hasSize(RECIPIENTS);
+        System.out.printf("Outbox: %d mesaj %.2f sn (%.0f mesaj/sn)%n", RECIPIENTS, seconds, RECIPIENTS / seconds);
+    }
+
+    @Test
+    void startingTheSameCampaignTwiceDoesNotDuplicate() {
+        seedUsers(100, 1);
+
+        awaitStart(broadcast("same-key"));
+        awaitStart(broadcast("same-key"));
+
+        assertThat(outboxMessageRepository.count()).isEqualTo(100);
+        assertThat(receivedByChat.values()).allMatch(count -> count.get() == 1);
+    }
+
+    @Test
+    void audienceIsCopiedInsideTheDatabaseSkippingBlockedUsers() {
+        jdbcTemplate.batchUpdate("INSERT INTO bot_users (chat_id, notifications_enabled, is_admin, city_id, blocked_at) VALUES (?, ?, FALSE, ?, ?)",
+                List.of(
+                        new Object[]{1L, true, 34, null},
+                        new Object[]{2L, false, null, null},
+                        new Object[]{3L, true, 6, LocalDateTime.now()}));
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        Campaign campaign = outboxService.start(broadcast("audience"), OutboxBatchRepository.Audience.ALL_REACHABLE,
+                new OutboxService.DeliveryListener() {
+                    @Override
+                    public void onFinished() {
+                        finished.complete(null);
+                    }
+                });
+        finished.orTimeout(30, TimeUnit.SECONDS).join();
+
+        assertThat(receivedByChat.keySet()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(jdbcTemplate.queryForList("SELECT city_id FROM notification_outbox WHERE campaign_id = ? ORDER BY chat_id",
+                Integer.class, campaign.getId())).containsExactly(34, 1);
+    }
+
+    @Test
+    void failedEnqueueLeavesNoRunningCampaignBehind() {
+        OutboxBatchRepository failing = new OutboxBatchRepository(jdbcTemplate) {
+            @Override
+            public int insertPending(Long campaignId, Audience audience) {
+                throw new IllegalStateException("alıcılar yazılamadı");
+            }
+        };
+        OutboxService service = new OutboxService(campaignRepository, outboxMessageRepository, failing,
+                dispatcher, transactionManager, 500, 1000);
+
+        assertThatThrownBy(() -> service.start(broadcast("rollback"), OutboxBatchRepository.Audience.ALL_REACHABLE, null))
+                .hasMessageContaining("alıcılar yazılamadı");
+
+        assertThat(campaignRepository.findByCampaignKey("rollback")).isEmpty();
+        assertThat(campaignRepository.findByStatus(Campaign.Status.RUNNING)).isEmpty();
+        service.shutdown();
+    }
+
+    @Test
+    void resumesPendingRowsAfterRestartWithoutResendingServedUsers() throws Exception {
+        Campaign campaign = campaignRepository.save(broadcast("restart").toBuilder()
+                .status(Campaign.Status.RUNNING)
+                .createdAt(LocalDateTime.now())
+                .build());
+        seedUsers(1_000, 6);
+        new OutboxBatchRepository(jdbcTemplate).insertPending(campaign.getId(), OutboxBatchRepository.Audience.ALL_REACHABLE);
+
+        // Çökmeden önce ilk 600 kullanıcıya gönderilmiş, 3 tanesi gönderim sırasında kalmış
+        jdbcTemplate.update("UPDATE notification_outbox SET status = 'SENT' WHERE campaign_id = ? AND chat_id <= 600",
+                campaign.getId());
+        jdbcTemplate.update("UPDATE notification_outbox SET status = 'SENDING' WHERE campaign_id = ? AND chat_id BETWEEN 601 AND 603",
+                campaign.getId());
+
+        outboxService.resumeUnfinished();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (campaignRepository.findById(campaign.getId()).orElseThrow().getStatus() != Campaign.Status.DONE) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+
+        assertThat(receivedByChat).hasSize(397);
+        assertThat(receivedByChat.keySet()).allMatch(chatId -> chatId > 603);
+        assertThat(outboxMessageRepository.countByCampaignIdAndStatus(campaign.getId(), OutboxMessage.Status.SENT))
+                .isEqualTo(997);
+        // Çökme anında gönderilmekte olanlar tekrar gönderilmez, belirsiz olarak kapatılır
+        assertThat(outboxMessageRepository.countByCampaignIdAndStatus(campaign.getId(), OutboxMessage.Status.SENDING))
+                .isZero();
+        assertThat(outboxService.getUncertainDeliveryCount()).isEqualTo(3);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Campaign.class)
+    @EnableJpaRepositories(basePackageClasses = CampaignRepository.class)
+    static class JpaConfig {
+    }
+
+    private void seedUsers(int count, int cityId) {
+        jdbcTemplate.batchUpdate("INSERT INTO bot_users (chat_id, notifications_enabled, is_admin, city_id) VALUES (?, TRUE, FALSE, ?)",
+                LongStream.rangeClosed(1, count).mapToObj(chatId -> new Object[]{chatId, cityId}).toList());
+    }
+
+    private void awaitStart(Campaign campaign) {
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        outboxService.start(campaign, OutboxBatchRepository.Audience.ALL_REACHABLE, new OutboxService.DeliveryListener() {
+            @Override
+            public void onFinished() {
+                finished.complete(null);
+            }
+        });
+        finished.orTimeout(30, TimeUnit.SECONDS).join();
+    }
+
+    private static Campaign broadcast(String key) {
+        return Campaign.builder()
+                .campaignKey(key)
+                .type(Campaign.Type.BROADCAST)
+                .text("📢 Duyuru\n\ntest")
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.kyk.mealtracker.services;
+
+import com.kyk.mealtracker.bot.ChatUnreachableEvent;
+import com.kyk.mealtracker.entity.BotUser;
+import com.kyk.mealtracker.repository.BotUserBatchRepository;
+import com.kyk.mealtracker.repository.BotUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserActivityTrackerTest {
+
+    private static final Long CHAT_ID = 42L;
+
+    private BotUserRepository botUserRepository;
+    private BotUserBatchRepository batchRepository;
+    private BotStatsService botStatsService;
+    private UserActivityTracker tracker;
+    private BotUser botUser;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        botUserRepository = mock(BotUserRepository.class);
+        batchRepository = mock(BotUserBatchRepository.class);
+        botStatsService = mock(BotStatsService.class);
+        tracker = new UserActivityTracker(botUserRepository, batchRepository, mock(ApplicationEventPublisher.class),
+                botStatsService, 100);
+        botUser = new BotUser();
+        botUser.setChatId(CHAT_ID);
+        botUser.setCityId(34);
+        when(botUserRepository.findById(CHAT_ID)).thenReturn(Optional.of(botUser));
+        when(botUserRepository.save(any(BotUser.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        user = new User(CHAT_ID, "Ayşe", false);
+    }
+
+    @Test
+    void knownUserIsOnlyBatchedUntilMarkedUnreachable() {
+        tracker.recordActivity(CHAT_ID, user);
+        tracker.recordActivity(CHAT_ID, user);
+        verify(botUserRepository, times(1)).findById(CHAT_ID);
+
+        // Teslimat hatası kullanıcıyı engelli işaretler; engelden önceki etkinlik engeli silmemeli
+        botUser.setBlockedAt(LocalDateTime.now());
+        tracker.onChatUnreachable(new ChatUnreachableEvent(CHAT_ID, "Forbidden: bot was blocked by the user"));
+        tracker.flush();
+        verify(batchRepository, never()).updateActivity(any());
+
+        tracker.recordActivity(CHAT_ID, user);
+
+        verify(botUserRepository, times(2)).findById(CHAT_ID);
+        verify(botStatsService).onReachabilityChanged(true);
+    }
+}